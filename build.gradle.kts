@@ -9,6 +9,12 @@ repositories {
     mavenCentral()
 }
 
+// JMH benchmarks live in their own source set so they never end up in the main artifact or the unit tests.
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
 dependencies {
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
@@ -20,8 +26,46 @@ dependencies {
     // https://mvnrepository.com/artifact/org.mockito/mockito-core
     testImplementation("org.mockito:mockito-core:5.14.2")
 
+    // https://mvnrepository.com/artifact/org.openjdk.jmh/jmh-core
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+
 }
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+val jmhResults = layout.buildDirectory.file("results/jmh/results.csv")
+val jmhBaseline = layout.projectDirectory.file("src/jmh/baseline.csv")
+
+// ./gradlew jmh -PjmhInclude=TryBenchmark runs a subset, -PjmhArgs="-f 1 -wi 1" overrides the JMH options.
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks with the GC profiler and writes the results to build/results/jmh."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    outputs.upToDateWhen { false }
+    doFirst { jmhResults.get().asFile.parentFile.mkdirs() }
+    args(providers.gradleProperty("jmhInclude").getOrElse(".*Benchmark.*"))
+    args("-prof", "gc", "-rf", "csv", "-rff", jmhResults.get().asFile.absolutePath)
+    providers.gradleProperty("jmhArgs").orNull?.let { args(it.split(" ")) }
+}
+
+tasks.register<Copy>("jmhBaseline") {
+    group = "benchmark"
+    description = "Records the last JMH results as the baseline the next runs are compared against."
+    from(jmhResults)
+    into(jmhBaseline.asFile.parentFile)
+    rename { jmhBaseline.asFile.name }
+}
+
+// ./gradlew jmhCompare -PjmhTolerance=0.15 fails when a benchmark is more than 15% worse than the baseline.
+tasks.register<JavaExec>("jmhCompare") {
+    group = "benchmark"
+    description = "Compares the last JMH results with the recorded baseline."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.orel.benchmark.CompareResults")
+    args(jmhBaseline.asFile.absolutePath, jmhResults.get().asFile.absolutePath)
+    args(providers.gradleProperty("jmhTolerance").getOrElse("0.10"))
+}
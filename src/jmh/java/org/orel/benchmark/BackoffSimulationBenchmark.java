@@ -0,0 +1,86 @@
+package org.orel.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.orel.policy.AdaptiveBackoff;
+import org.orel.policy.Backoff;
+import org.orel.policy.RetryPolicy;
+import org.orel.simulation.RetrySimulation;
+import org.orel.simulation.ServiceModel;
+import org.orel.simulation.SimulationReport;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Static backoffs against the adaptive one on simulated dependencies: one failing transiently, where retrying right
+ * away pays, and one with periodic outages of two seconds, where it does not. The score is the cost of a simulation,
+ * the outcome of the strategies is in the auxiliary counters: success rate, load amplification and mean latency in
+ * simulated milliseconds.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class BackoffSimulationBenchmark {
+
+    @Param({"fixedShort", "fixedLong", "exponential", "adaptive"})
+    private String strategy;
+
+    @Param({"transient", "outages"})
+    private String scenario;
+
+    private RetrySimulation simulation;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        var backoff = switch (strategy) {
+            case "fixedShort" -> Backoff.fixed(5);
+            case "fixedLong" -> Backoff.fixed(2_000);
+            case "exponential" -> Backoff.exponential(5, 4, 5_000);
+            case "adaptive" -> new AdaptiveBackoff(1, 5_000);
+            default -> throw new IllegalArgumentException("Unknown strategy " + strategy);
+        };
+        var model = switch (scenario) {
+            case "transient" -> ServiceModel.failing(0.3, Duration.ofMillis(10));
+            case "outages" -> ServiceModel.failing(0, Duration.ofMillis(10))
+                    .withPeriodicOutages(Duration.ofSeconds(10), Duration.ofSeconds(2));
+            default -> throw new IllegalArgumentException("Unknown scenario " + scenario);
+        };
+        // a new backoff every iteration, so that the adaptive one starts learning from scratch each time
+        var policy = RetryPolicy.builder(strategy).maxAttempts(4).backoff(backoff).build();
+        simulation = RetrySimulation.builder(policy, model).calls(50_000).arrivalRate(1_000).build();
+    }
+
+    @Benchmark
+    public SimulationReport simulate(Outcome outcome) {
+        var report = simulation.run();
+        outcome.successRate = report.successRate();
+        outcome.loadAmplification = report.loadAmplification();
+        outcome.meanLatencyMillis = report.meanLatencyNanos() / 1e6;
+        return report;
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Outcome {
+        public double successRate;
+
+        public double loadAmplification;
+
+        public double meanLatencyMillis;
+    }
+}
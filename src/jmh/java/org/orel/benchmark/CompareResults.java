@@ -0,0 +1,109 @@
+package org.orel.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two JMH result files in CSV format and exits with an error when a benchmark got worse than the baseline by
+ * more than the tolerance. Scores in operations per time unit are better when higher, all the others (time or bytes
+ * per operation) when lower.
+ *
+ * <pre>
+ *      CompareResults baseline.csv results.csv 0.10
+ * </pre>
+ */
+public class CompareResults {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: CompareResults <baseline.csv> <results.csv> <tolerance>");
+            System.exit(2);
+        }
+        var baselineFile = Path.of(args[0]);
+        var resultsFile = Path.of(args[1]);
+        if (!Files.exists(baselineFile)) {
+            System.err.println("No baseline at " + baselineFile + ", record one with ./gradlew jmh jmhBaseline");
+            System.exit(2);
+        }
+        var tolerance = Double.parseDouble(args[2]);
+
+        var baseline = read(baselineFile);
+        var results = read(resultsFile);
+        var regressions = 0;
+        for (var entry : results.entrySet()) {
+            var before = baseline.get(entry.getKey());
+            if (before == null) {
+                var score = entry.getValue();
+                System.out.printf("NEW        %s: %.3f %s%n", entry.getKey(), score.score(), score.unit());
+                continue;
+            }
+            var after = entry.getValue();
+            var change = (after.score() - before.score()) / before.score();
+            var worse = after.higherIsBetter() ? -change : change;
+            var status = worse > tolerance ? "REGRESSION" : worse < -tolerance ? "IMPROVED" : "OK";
+            if (worse > tolerance) {
+                regressions++;
+            }
+            System.out.printf("%-10s %s: %.3f -> %.3f %s (%+.1f%%)%n",
+                    status, entry.getKey(), before.score(), after.score(), after.unit(), change * 100);
+        }
+        if (regressions > 0) {
+            System.err.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, tolerance * 100);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(Path file) throws IOException {
+        var lines = Files.readAllLines(file);
+        var header = split(lines.get(0));
+        var scores = new LinkedHashMap<String, Score>();
+        for (var line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) {
+                continue;
+            }
+            var columns = split(line);
+            var key = new StringBuilder(columns.get(0)).append(" [").append(columns.get(1));
+            for (int i = 7; i < columns.size(); i++) {
+                if (columns.get(i).isEmpty()) {
+                    continue;
+                }
+                key.append(", ").append(header.get(i).replace("Param: ", "")).append('=').append(columns.get(i));
+            }
+            var score = Double.parseDouble(columns.get(4));
+            if (!Double.isNaN(score) && score != 0) {
+                scores.put(key.append(']').toString(), new Score(score, columns.get(6)));
+            }
+        }
+        return scores;
+    }
+
+    private static List<String> split(String line) {
+        var columns = new ArrayList<String>();
+        var current = new StringBuilder();
+        var quoted = false;
+        for (var c : line.toCharArray()) {
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                columns.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        columns.add(current.toString());
+        return columns;
+    }
+
+    private record Score(double score, String unit) {
+
+        boolean higherIsBetter() {
+            return unit.startsWith("ops/");
+        }
+    }
+}
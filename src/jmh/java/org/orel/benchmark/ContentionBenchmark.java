@@ -0,0 +1,66 @@
+package org.orel.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.orel.RetryConfig;
+import org.orel.cache.CacheSpec;
+import org.orel.cache.MemoizedFunction;
+import org.orel.limiter.RateLimiter;
+import org.orel.metrics.RetryMetrics;
+import org.orel.monad.Try;
+import org.orel.retryable.RetryableFunction;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared components hit by many threads at once: the striped metrics, the compare-and-set rate limiter and the cache
+ * hit path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ContentionBenchmark {
+    private final RetryConfig plain = new RetryConfig(0, 3);
+
+    private final RetryConfig withMetrics = plain.withName("benchmark").withListener(new RetryMetrics());
+
+    private final RetryConfig withRateLimiter =
+            plain.withRateLimiter(RateLimiter.tokenBucket(1e12, 1_000_000, Duration.ZERO));
+
+    private final MemoizedFunction<Integer, Integer> memoized =
+            Try.memoize(x -> x + 1, CacheSpec.maximumSize(1_024));
+
+    @Benchmark
+    public Integer retryablePlain() throws Exception {
+        return new RetryableFunction<Integer, Integer>(x -> x + 1, plain).apply(42);
+    }
+
+    @Benchmark
+    public Integer retryableWithMetrics() throws Exception {
+        return new RetryableFunction<Integer, Integer>(x -> x + 1, withMetrics).apply(42);
+    }
+
+    @Benchmark
+    public Integer retryableWithRateLimiter() throws Exception {
+        return new RetryableFunction<Integer, Integer>(x -> x + 1, withRateLimiter).apply(42);
+    }
+
+    @Benchmark
+    public Try<Integer> memoizedHit() {
+        return memoized.apply(ThreadLocalRandom.current().nextInt(512));
+    }
+}
@@ -0,0 +1,103 @@
+package org.orel.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.orel.limiter.PriorityRateLimiter;
+import org.orel.limiter.RateLimiter;
+import org.orel.policy.Priority;
+import org.orel.policy.RetryPolicy;
+import org.orel.retryable.RetryableFunction;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of critical calls sharing an overloaded rate limiter with seven times as many batch callers, each thread
+ * asking for permits as fast as it can: with a plain token bucket the critical calls queue behind the batch ones, with
+ * the prioritized one they only wait for the next permit.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriorityBenchmark {
+
+    @State(Scope.Group)
+    public static class Shared {
+        RetryableFunction<Integer, Integer> critical;
+
+        RetryableFunction<Integer, Integer> batch;
+
+        void setUp(RateLimiter rateLimiter) {
+            critical = function(rateLimiter, Priority.CRITICAL);
+            batch = function(rateLimiter, Priority.BACKGROUND);
+        }
+
+        private static RetryableFunction<Integer, Integer> function(RateLimiter rateLimiter, Priority priority) {
+            var policy = RetryPolicy.builder(priority.name())
+                    .maxAttempts(1)
+                    .priority(priority)
+                    .rateLimiter(rateLimiter)
+                    .build();
+            return policy.decorateFunction(x -> x + 1);
+        }
+    }
+
+    @State(Scope.Group)
+    public static class Fifo extends Shared {
+
+        @Setup
+        public void setUp() {
+            setUp(RateLimiter.tokenBucket(20_000, 100, Duration.ofSeconds(1)));
+        }
+    }
+
+    @State(Scope.Group)
+    public static class Prioritized extends Shared {
+
+        @Setup
+        public void setUp() {
+            setUp(new PriorityRateLimiter(
+                    RateLimiter.tokenBucket(20_000, 100, Duration.ofSeconds(1)), Duration.ofMillis(100)));
+        }
+    }
+
+    @Benchmark
+    @Group("fifo")
+    @GroupThreads(1)
+    public Integer fifoCritical(Fifo state) throws Exception {
+        return state.critical.apply(42);
+    }
+
+    @Benchmark
+    @Group("fifo")
+    @GroupThreads(7)
+    public Integer fifoBatch(Fifo state) throws Exception {
+        return state.batch.apply(42);
+    }
+
+    @Benchmark
+    @Group("prioritized")
+    @GroupThreads(1)
+    public Integer prioritizedCritical(Prioritized state) throws Exception {
+        return state.critical.apply(42);
+    }
+
+    @Benchmark
+    @Group("prioritized")
+    @GroupThreads(7)
+    public Integer prioritizedBatch(Prioritized state) throws Exception {
+        return state.batch.apply(42);
+    }
+}
@@ -0,0 +1,89 @@
+package org.orel.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.orel.RetryConfig;
+import org.orel.monad.Try;
+import org.orel.operator.FaillibleFunction;
+import org.orel.retryable.RetryableConsumer;
+import org.orel.retryable.RetryableFunction;
+import org.orel.retryable.RetryableRunnable;
+import org.orel.retryable.RetryableSupplier;
+import org.orel.retryable.RetryableSupplierWithValidation;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the retryable wrappers when the first attempt succeeds, and of one failed attempt followed by a
+ * successful one with no backoff.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RetryableBenchmark {
+    private static final Exception FAILURE = new StacklessException();
+
+    private static final RetryConfig NO_BACKOFF = new RetryConfig(0, 3);
+
+    private int value = 42;
+
+    private int calls;
+
+    private final FaillibleFunction<Integer, Integer, Exception> failingEveryOtherCall = x -> {
+        if ((calls++ & 1) == 0) {
+            throw FAILURE;
+        }
+        return x + 1;
+    };
+
+    @Benchmark
+    public Integer function() throws Exception {
+        return new RetryableFunction<Integer, Integer>(x -> x + 1, NO_BACKOFF).apply(value);
+    }
+
+    @Benchmark
+    public Integer supplier() throws Exception {
+        return new RetryableSupplier<>(() -> value + 1, NO_BACKOFF).get();
+    }
+
+    @Benchmark
+    public Integer supplierWithValidation() throws Exception {
+        return new RetryableSupplierWithValidation<>(() -> value + 1, NO_BACKOFF, x -> x > 0).get();
+    }
+
+    @Benchmark
+    public void runnable(Blackhole blackhole) throws Exception {
+        new RetryableRunnable(() -> blackhole.consume(value), NO_BACKOFF).apply();
+    }
+
+    @Benchmark
+    public void consumer(Blackhole blackhole) throws Exception {
+        new RetryableConsumer<Integer>(blackhole::consume, NO_BACKOFF).accept(value);
+    }
+
+    @Benchmark
+    public Try<Integer> tryThenApply() {
+        return Try.success(value).thenApply(x -> x + 1, NO_BACKOFF);
+    }
+
+    @Benchmark
+    public Integer functionFailingThenSucceeding() throws Exception {
+        return new RetryableFunction<>(failingEveryOtherCall, NO_BACKOFF).apply(value);
+    }
+
+    @Benchmark
+    public Try<Integer> tryFailingThenSucceeding() {
+        return Try.of(failingEveryOtherCall, NO_BACKOFF).apply(value);
+    }
+}
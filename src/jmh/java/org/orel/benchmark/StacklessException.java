@@ -0,0 +1,12 @@
+package org.orel.benchmark;
+
+/**
+ * Preallocated failure without a stack trace, so that the benchmarks measure the library rather than
+ * {@link Throwable#fillInStackTrace()}.
+ */
+class StacklessException extends Exception {
+
+    StacklessException() {
+        super("failed", null, false, false);
+    }
+}
@@ -0,0 +1,57 @@
+package org.orel.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.orel.monad.Try;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of creating and combining single Try values.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TryBenchmark {
+    private static final Exception FAILURE = new StacklessException();
+
+    // not final so that the JIT cannot fold the computations away
+    private int value = 42;
+
+    @Benchmark
+    public int baseline() {
+        return value + 1;
+    }
+
+    @Benchmark
+    public Try<Integer> runSuccess() {
+        return Try.run(() -> value + 1);
+    }
+
+    @Benchmark
+    public Try<Integer> runFailure() {
+        return Try.run(() -> {
+            throw FAILURE;
+        });
+    }
+
+    @Benchmark
+    public Try<Integer> combine() {
+        return Try.combine(Try.success(value), Try.success(value), Integer::sum);
+    }
+
+    @Benchmark
+    public Integer getOrElseOnFailure() {
+        return Try.<Integer>failure(FAILURE).getOrElse(value);
+    }
+}
@@ -0,0 +1,59 @@
+package org.orel.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.orel.monad.Try;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of pipelining stages with {@code thenApply} and {@code thenCompose}, compared to plain arithmetic.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TryChainBenchmark {
+
+    @Param({"1", "4", "16"})
+    private int depth;
+
+    private int value = 42;
+
+    @Benchmark
+    public int baseline() {
+        var result = value;
+        for (int i = 0; i < depth; i++) {
+            result = result + 1;
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Try<Integer> thenApply() {
+        var result = Try.success(value);
+        for (int i = 0; i < depth; i++) {
+            result = result.thenApply(x -> x + 1);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Try<Integer> thenCompose() {
+        var result = Try.success(value);
+        for (int i = 0; i < depth; i++) {
+            result = result.thenCompose(x -> Try.success(x + 1));
+        }
+        return result;
+    }
+}
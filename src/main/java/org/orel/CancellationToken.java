@@ -0,0 +1,81 @@
+package org.orel;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets the owner of a request stop the retries done on its behalf. Attached to a {@link RetryConfig}, it is checked
+ * before every attempt and wakes up a pending backoff right away, the retry loop then failing with a
+ * {@link CancelledException}. <br><br>
+ *
+ * Work running on other threads or scheduled for later can register a callback with {@link #onCancel(Runnable)}.
+ * Cancelling is idempotent and cannot be undone.
+ */
+public final class CancellationToken {
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+
+    private final ConcurrentLinkedQueue<Runnable> callbacks = new ConcurrentLinkedQueue<>();
+
+    public void cancel() {
+        if (isCancelled()) {
+            return;
+        }
+        cancelled.countDown();
+        runCallbacks();
+    }
+
+    public boolean isCancelled() {
+        return cancelled.getCount() == 0;
+    }
+
+    /**
+     * Waits for the given delay unless the token is cancelled first.
+     *
+     * @return true if the token has been cancelled.
+     */
+    public boolean await(long delay, TimeUnit unit) throws InterruptedException {
+        return cancelled.await(delay, unit);
+    }
+
+    /**
+     * Runs the callback when the token is cancelled, right away if it already is.
+     *
+     * @return a handle removing the callback, to be closed once the work it would stop is done.
+     */
+    public Registration onCancel(Runnable callback) {
+        Objects.requireNonNull(callback, "Callback should not be null");
+        callbacks.add(callback);
+        // the token may have been cancelled before the callback was added
+        if (isCancelled()) {
+            runCallbacks();
+        }
+        return () -> callbacks.remove(callback);
+    }
+
+    private void runCallbacks() {
+        Runnable callback;
+        while ((callback = callbacks.poll()) != null) {
+            callback.run();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Registration extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    public static class CancelledException extends Exception {
+
+        public CancelledException(String message) {
+            super(message);
+        }
+
+        public CancelledException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
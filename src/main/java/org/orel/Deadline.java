@@ -0,0 +1,79 @@
+package org.orel;
+
+import org.orel.time.Clock;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in time by which a whole request must be done. Attached to the {@link RetryConfig} of every stage of a
+ * {@link org.orel.monad.Try} chain, it bounds the chain as a whole rather than each stage on its own:
+ *
+ * <pre>
+ *      var retryConfig = new RetryConfig( delay, 5 ).withDeadline( Deadline.after( Duration.ofMillis( 200 ) ) );
+ *
+ *      Try<Integer> result = Try.run( a, retryConfig )
+ *          .thenApply( b, retryConfig )
+ *          .thenCompose( c, retryConfig );
+ * </pre>
+ *
+ * A retry loop does not start an attempt once the deadline has passed, and shortens a backoff that would reach it to
+ * half of the time left, for a last attempt: it fails with a {@link DeadlineExceededException} once that attempt fails
+ * too. The deadline does not interrupt an attempt running, which should bound its own calls by {@link #remaining()}.
+ */
+public final class Deadline {
+    private final Clock clock;
+
+    private final long deadlineNanos;
+
+    private Deadline(Clock clock, long deadlineNanos) {
+        this.clock = clock;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return after(timeout, Clock.SYSTEM);
+    }
+
+    public static Deadline after(Duration timeout, Clock clock) {
+        Objects.requireNonNull(timeout, "Timeout should not be null");
+        Objects.requireNonNull(clock, "Clock should not be null");
+        return new Deadline(clock, clock.nanoTime() + timeout.toNanos());
+    }
+
+    public long remainingNanos() {
+        return deadlineNanos - clock.nanoTime();
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, remainingNanos()));
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * Whether waiting for the given delay would reach the deadline.
+     */
+    public boolean expiresWithin(long delay, TimeUnit unit) {
+        return remainingNanos() <= unit.toNanos(delay);
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline{" + "remaining=" + remaining() + '}';
+    }
+
+    public static class DeadlineExceededException extends Exception {
+
+        public DeadlineExceededException(String message) {
+            super(message);
+        }
+
+        public DeadlineExceededException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
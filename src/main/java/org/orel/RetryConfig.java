@@ -1,13 +1,102 @@
 package org.orel;
 
+import org.orel.admission.AdmissionController;
+import org.orel.limiter.RateLimiter;
+import org.orel.policy.Backoff;
+import org.orel.policy.RetryPolicy;
+import org.orel.retryable.RetryListener;
+import org.orel.retryable.RetryableFunction;
+
+import java.util.Objects;
 import java.util.function.Supplier;
 
-public record RetryConfig(Supplier<Long> backoffDelay, long nbOfRetries) {
+/**
+ * Describes how to retry, along with the state of the request being retried. A {@link RetryableFunction} built from it
+ * compiles it into a {@link RetryPolicy} once, in its constructor, and runs every call off that policy: build the
+ * retryable once and reuse it, or share a {@link RetryPolicy} directly, rather than building one per call.
+ *
+ * @param rateLimiter         when not null, every attempt (the first one and the retries) needs a permit from it. An
+ *                            attempt denied a permit fails with a {@link RateLimiter.RequestNotPermittedException}
+ *                            and is retried like any other failed attempt.
+ * @param listener            receives the events of the retry loop, {@link RetryListener#NOOP} by default.
+ * @param name                identifies the policy in the listener events.
+ * @param deadline            when not null, bounds the time spent retrying, see {@link Deadline}.
+ * @param cancellationToken   when not null, stops the retries as soon as it is cancelled, see
+ *                            {@link CancellationToken}.
+ * @param admissionController when not null, sheds the attempts while it detects an overload, see
+ *                            {@link AdmissionController}.
+ */
+public record RetryConfig(
+        Supplier<Long> backoffDelay,
+        long nbOfRetries,
+        RateLimiter rateLimiter,
+        RetryListener listener,
+        String name,
+        Deadline deadline,
+        CancellationToken cancellationToken,
+        AdmissionController admissionController) {
+
+    public static final String DEFAULT_NAME = "default";
+
+    public RetryConfig {
+        Objects.requireNonNull(listener, "Listener should not be null");
+        Objects.requireNonNull(name, "Name should not be null");
+    }
+
+    public RetryConfig(Supplier<Long> backoffDelay, long nbOfRetries) {
+        this(backoffDelay, nbOfRetries, null, RetryListener.NOOP, DEFAULT_NAME, null, null, null);
+    }
 
     public RetryConfig(long delayInMillis, long nbOfRetries) {
         this(() -> delayInMillis, nbOfRetries);
     }
 
+    public RetryConfig withRateLimiter(RateLimiter rateLimiter) {
+        return new RetryConfig(
+                backoffDelay, nbOfRetries, rateLimiter, listener, name, deadline, cancellationToken, admissionController);
+    }
+
+    public RetryConfig withListener(RetryListener listener) {
+        return new RetryConfig(
+                backoffDelay, nbOfRetries, rateLimiter, listener, name, deadline, cancellationToken, admissionController);
+    }
+
+    public RetryConfig withName(String name) {
+        return new RetryConfig(
+                backoffDelay, nbOfRetries, rateLimiter, listener, name, deadline, cancellationToken, admissionController);
+    }
+
+    public RetryConfig withDeadline(Deadline deadline) {
+        return new RetryConfig(
+                backoffDelay, nbOfRetries, rateLimiter, listener, name, deadline, cancellationToken, admissionController);
+    }
+
+    public RetryConfig withCancellationToken(CancellationToken cancellationToken) {
+        return new RetryConfig(
+                backoffDelay, nbOfRetries, rateLimiter, listener, name, deadline, cancellationToken, admissionController);
+    }
+
+    public RetryConfig withAdmissionController(AdmissionController admissionController) {
+        return new RetryConfig(
+                backoffDelay, nbOfRetries, rateLimiter, listener, name, deadline, cancellationToken, admissionController);
+    }
+
+    /**
+     * The backoff delay supplier is asked for a delay once per call, the delay of all its retries. The deadline and
+     * the cancellation token are not part of the policy.
+     *
+     * @return a new policy compiled from this configuration.
+     */
+    public RetryPolicy toPolicy() {
+        return RetryPolicy.builder(name)
+                .maxAttempts(nbOfRetries)
+                .backoff(Backoff.of(backoffDelay))
+                .listener(listener)
+                .rateLimiter(rateLimiter)
+                .admissionController(admissionController)
+                .build();
+    }
+
     public static class MaxRetriesException extends Exception {
 
         public MaxRetriesException() {}
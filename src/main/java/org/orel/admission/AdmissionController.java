@@ -0,0 +1,218 @@
+package org.orel.admission;
+
+import org.orel.monad.Try;
+import org.orel.operator.FaillibleSupplier;
+import org.orel.policy.Priority;
+import org.orel.policy.RetryPolicy;
+import org.orel.time.Clock;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sheds retryable work when the executor running it is overloaded, following CoDel: what tells an overload apart
+ * from a burst is the queueing delay of the tasks staying above a target for a whole interval, i.e. the minimum
+ * sojourn time over the interval being above the target. <br><br>
+ *
+ * While overloaded, every retry is shed, since retries only add load to a saturated executor, while first attempts
+ * are shed at the CoDel control law rate: one after an interval, then at intervals shrinking with the square root of
+ * the number shed, until the queueing delay gets back under the target. The {@link Priority} of the policy shifts this
+ * by a class: critical work sheds its retries like first attempts and never its first attempts, background work is
+ * always shed. Shed work fails fast with an {@link OverloadedException}. <br><br>
+ *
+ * The queueing delays are measured by the executors wrapped with {@link #wrap(Executor)}; attempts are admitted by the
+ * retry loops of the policies having the controller, see {@link RetryPolicy.Builder#admissionController}. The state
+ * is a few atomics updated with compare-and-set, deciding costs a couple of volatile reads.
+ *
+ * <pre>
+ *      var controller = new AdmissionController( Duration.ofMillis( 5 ), Duration.ofMillis( 100 ) );
+ *      var policy = RetryPolicy.builder( "orders" ).admissionController( controller ).build();
+ *
+ *      CompletableFuture<Try<Order>> order = controller.submit( executor, () -> client.fetch( id ), policy );
+ * </pre>
+ */
+public class AdmissionController {
+    private static final long NO_SAMPLE = Long.MAX_VALUE;
+
+    private final long targetNanos;
+
+    private final long intervalNanos;
+
+    private final Clock clock;
+
+    private final AtomicLong intervalStart;
+
+    private final AtomicLong intervalMinSojourn = new AtomicLong(NO_SAMPLE);
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final AtomicLong nextShed = new AtomicLong();
+
+    private final AtomicInteger shedInOverload = new AtomicInteger();
+
+    private final AtomicLong shedCount = new AtomicLong();
+
+    private volatile boolean overloaded;
+
+    private volatile long lastMinSojourn;
+
+    public AdmissionController(Duration target, Duration interval) {
+        this(target, interval, Clock.SYSTEM);
+    }
+
+    public AdmissionController(Duration target, Duration interval, Clock clock) {
+        Objects.requireNonNull(target, "Target should not be null");
+        Objects.requireNonNull(interval, "Interval should not be null");
+        if (target.isNegative() || target.isZero() || interval.compareTo(target) <= 0) {
+            throw new IllegalArgumentException("Target should be positive and shorter than the interval");
+        }
+        this.targetNanos = target.toNanos();
+        this.intervalNanos = interval.toNanos();
+        this.clock = Objects.requireNonNull(clock, "Clock should not be null");
+        this.intervalStart = new AtomicLong(clock.nanoTime());
+    }
+
+    /**
+     * Records how long a task waited in the queue before it started running.
+     */
+    public void recordSojourn(long sojournNanos) {
+        var now = clock.nanoTime();
+        roll(now);
+        intervalMinSojourn.accumulateAndGet(sojournNanos, Math::min);
+    }
+
+    /**
+     * @param retry whether the work is a retry of a failed attempt, rather than a first attempt.
+     * @return false if the work should be shed.
+     */
+    public boolean tryAdmit(boolean retry) {
+        return tryAdmit(retry, Priority.NORMAL);
+    }
+
+    /**
+     * Sheds the work of the lower classes first while overloaded: {@link Priority#CRITICAL} first attempts are always
+     * admitted and its retries shed at the pace of the control law, like {@link Priority#NORMAL} first attempts, while
+     * the retries of normal work and all {@link Priority#BACKGROUND} work are shed.
+     *
+     * @param retry whether the work is a retry of a failed attempt, rather than a first attempt.
+     * @return false if the work should be shed.
+     */
+    public boolean tryAdmit(boolean retry, Priority priority) {
+        Objects.requireNonNull(priority, "Priority should not be null");
+        var now = clock.nanoTime();
+        roll(now);
+        if (!overloaded) {
+            return true;
+        }
+        // a retry is worth one class less than a first attempt
+        var level = priority.ordinal() - Priority.NORMAL.ordinal() + (retry ? 1 : 0);
+        if (level < 0) {
+            return true;
+        }
+        if (level > 0) {
+            shedCount.incrementAndGet();
+            return false;
+        }
+        var next = nextShed.get();
+        if (now - next < 0) {
+            return true;
+        }
+        var delay = (long) (intervalNanos / Math.sqrt(shedInOverload.get() + 1));
+        if (!nextShed.compareAndSet(next, now + delay)) {
+            // another thread shed the first attempt due at this time
+            return true;
+        }
+        shedInOverload.incrementAndGet();
+        shedCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Wraps the executor to measure the queueing delay of the tasks it runs.
+     */
+    public Executor wrap(Executor executor) {
+        Objects.requireNonNull(executor, "Executor should not be null");
+        return task -> {
+            var submitted = clock.nanoTime();
+            queued.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    queued.decrementAndGet();
+                    recordSojourn(clock.nanoTime() - submitted);
+                    task.run();
+                });
+            } catch (RejectedExecutionException e) {
+                queued.decrementAndGet();
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Runs the supplier with the policy on the executor, unless the controller sheds it: the future is then completed
+     * with a failure. When the policy has this controller, its retry loop decides on the first attempt once the task
+     * leaves the queue, as CoDel does, otherwise the work is decided on here and already failed when shed.
+     */
+    public <T> CompletableFuture<Try<T>> submit(
+            Executor executor, FaillibleSupplier<? extends T, Exception> supplier, RetryPolicy policy) {
+        Objects.requireNonNull(supplier, "Supplier should not be null");
+        Objects.requireNonNull(policy, "Policy should not be null");
+        // admitting it here as well would decide twice on the same first attempt
+        if (policy.admissionController() != this && !tryAdmit(false, policy.priority())) {
+            return CompletableFuture.completedFuture(Try.failure(new OverloadedException(
+                    String.format("Shed: queueing delay above %s ms", targetNanos / 1_000_000.0))));
+        }
+        return CompletableFuture.supplyAsync(() -> Try.run(supplier, policy), wrap(executor));
+    }
+
+    public boolean isOverloaded() {
+        roll(clock.nanoTime());
+        return overloaded;
+    }
+
+    /**
+     * @return the minimum queueing delay over the last complete interval, or -1 if no task started during it.
+     */
+    public long lastMinSojournNanos() {
+        return lastMinSojourn;
+    }
+
+    public long shedCount() {
+        return shedCount.get();
+    }
+
+    /**
+     * Closes the interval once it has elapsed, only one thread winning the compare-and-set. An interval without any
+     * task starting means an idle executor, unless tasks are still queued, in which case it is stuck.
+     */
+    private void roll(long now) {
+        var start = intervalStart.get();
+        if (now - start < intervalNanos || !intervalStart.compareAndSet(start, now)) {
+            return;
+        }
+        var min = intervalMinSojourn.getAndSet(NO_SAMPLE);
+        lastMinSojourn = min == NO_SAMPLE ? -1 : min;
+        var wasOverloaded = overloaded;
+        overloaded = min == NO_SAMPLE ? queued.get() > 0 : min > targetNanos;
+        if (overloaded && !wasOverloaded) {
+            nextShed.set(now);
+            shedInOverload.set(0);
+        }
+    }
+
+    public static class OverloadedException extends Exception {
+
+        public OverloadedException(String message) {
+            super(message);
+        }
+
+        public OverloadedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
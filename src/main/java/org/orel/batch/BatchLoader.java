@@ -0,0 +1,146 @@
+package org.orel.batch;
+
+import org.orel.monad.Try;
+import org.orel.operator.FaillibleFunction;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Coalesces single key lookups issued by many threads into calls of a batch function. <br><br>
+ *
+ * Keys are queued until {@link BatchSpec#maxBatchSize()} of them are waiting or the oldest has waited
+ * {@link BatchSpec#maxDelay()}, then the batch function is invoked once for all of them and each caller receives the
+ * value of its own key. A failed batch fails every caller of that batch, and a key missing from the returned map fails
+ * with a {@link NoSuchElementException}. <br><br>
+ *
+ * Enqueuing is lock-free and incomplete batches are flushed by the timer of the {@link BatchSpec}, so no thread is
+ * created per batch. A batch the dispatch executor rejects is dispatched by the thread that flushed it instead, the
+ * caller of {@link #loadAsync(Object)} or the timer, rather than left waiting.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+public class BatchLoader<K, V> implements Function<K, Try<V>> {
+    private final FaillibleFunction<? super List<K>, ? extends Map<K, V>, Exception> delegate;
+
+    private final BatchSpec batchSpec;
+
+    private final ConcurrentLinkedQueue<Request<K, V>> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    public BatchLoader(
+            FaillibleFunction<? super List<K>, ? extends Map<K, V>, Exception> batchFunction, BatchSpec batchSpec) {
+        this.delegate = Objects.requireNonNull(batchFunction, "Batch function should not be null");
+        this.batchSpec = Objects.requireNonNull(batchSpec, "Batch spec should not be null");
+    }
+
+    @Override
+    public Try<V> apply(K key) {
+        return loadAsync(key).join();
+    }
+
+    public CompletableFuture<Try<V>> loadAsync(K key) {
+        Objects.requireNonNull(key, "Key should not be null");
+        var request = new Request<K, V>(key, new CompletableFuture<>());
+        queue.offer(request);
+
+        if (pending.incrementAndGet() >= batchSpec.maxBatchSize()) {
+            execute(this::flushFullBatches);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                batchSpec.scheduler().schedule(this::flushAll, batchSpec.maxDelay().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // without a timer the partial batch is flushed right away rather than never
+                flushScheduled.set(false);
+                execute(this::flushAll);
+            }
+        }
+        return request.result();
+    }
+
+    private void flushFullBatches() {
+        while (pending.get() >= batchSpec.maxBatchSize()) {
+            var batch = poll();
+            if (batch.isEmpty()) {
+                return;
+            }
+            dispatch(batch);
+        }
+    }
+
+    private void flushAll() {
+        // cleared first so that keys queued while draining schedule their own flush
+        flushScheduled.set(false);
+        List<Request<K, V>> batch;
+        while (!(batch = poll()).isEmpty()) {
+            var toDispatch = batch;
+            execute(() -> dispatch(toDispatch));
+        }
+    }
+
+    /**
+     * Runs the task on the calling thread when the dispatch executor rejects it, since the requests it would complete
+     * may already be out of the queue.
+     */
+    private void execute(Runnable task) {
+        try {
+            batchSpec.dispatchExecutor().execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    private List<Request<K, V>> poll() {
+        var batch = new ArrayList<Request<K, V>>(Math.min(batchSpec.maxBatchSize(), 64));
+        Request<K, V> request;
+        while (batch.size() < batchSpec.maxBatchSize() && (request = queue.poll()) != null) {
+            batch.add(request);
+        }
+        pending.addAndGet(-batch.size());
+        return batch;
+    }
+
+    private void dispatch(List<Request<K, V>> batch) {
+        var keys = new LinkedHashSet<K>(batch.size() * 2);
+        batch.forEach(request -> keys.add(request.key()));
+
+        Try<Map<K, V>> result;
+        try {
+            result = Try.success(delegate.apply(new ArrayList<>(keys)));
+        } catch (Exception e) {
+            result = Try.failure(e);
+        } catch (Throwable t) {
+            // an Error must not leave the callers waiting forever
+            batch.forEach(request -> request.result().completeExceptionally(t));
+            throw t;
+        }
+
+        for (var request : batch) {
+            request.result().complete(result.thenApply(values -> valueOf(values, request.key())));
+        }
+    }
+
+    private V valueOf(Map<K, V> values, K key) {
+        if (values == null || !values.containsKey(key)) {
+            throw new NoSuchElementException("No value returned for key " + key);
+        }
+        return values.get(key);
+    }
+
+    private record Request<K, V>(K key, CompletableFuture<Try<V>> result) {}
+}
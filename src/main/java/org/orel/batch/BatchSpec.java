@@ -0,0 +1,56 @@
+package org.orel.batch;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Describes when a {@link BatchLoader} flushes the keys it has accumulated.
+ *
+ * @param maxBatchSize a batch is dispatched as soon as this many keys are waiting.
+ * @param maxDelay the longest time a key waits for its batch to fill up.
+ * @param scheduler the timer flushing incomplete batches, shared by all the loaders by default.
+ * @param dispatchExecutor the executor invoking the batch function.
+ */
+public record BatchSpec(
+        int maxBatchSize, Duration maxDelay, ScheduledExecutorService scheduler, Executor dispatchExecutor) {
+
+    private static final ScheduledExecutorService SHARED_SCHEDULER = sharedScheduler();
+
+    public BatchSpec {
+        Objects.requireNonNull(maxDelay, "Max delay should not be null");
+        Objects.requireNonNull(scheduler, "Scheduler should not be null");
+        Objects.requireNonNull(dispatchExecutor, "Dispatch executor should not be null");
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Max batch size should be positive");
+        }
+        if (maxDelay.isNegative()) {
+            throw new IllegalArgumentException("Max delay should not be negative");
+        }
+    }
+
+    public static BatchSpec of(int maxBatchSize, Duration maxDelay) {
+        return new BatchSpec(maxBatchSize, maxDelay, SHARED_SCHEDULER, ForkJoinPool.commonPool());
+    }
+
+    public BatchSpec withDispatchExecutor(Executor dispatchExecutor) {
+        return new BatchSpec(maxBatchSize, maxDelay, scheduler, dispatchExecutor);
+    }
+
+    public BatchSpec withScheduler(ScheduledExecutorService scheduler) {
+        return new BatchSpec(maxBatchSize, maxDelay, scheduler, dispatchExecutor);
+    }
+
+    private static ScheduledExecutorService sharedScheduler() {
+        var scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            var thread = new Thread(runnable, "batch-loader-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+}
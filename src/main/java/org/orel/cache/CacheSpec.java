@@ -0,0 +1,77 @@
+package org.orel.cache;
+
+import org.orel.time.Clock;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Describes how a {@link MemoizedFunction} bounds and refreshes its entries. <br><br>
+ *
+ * A zero duration disables the corresponding feature: entries never expire, failures are not cached or entries are
+ * never refreshed.
+ *
+ * @param maximumSize the maximum number of entries kept, least valuable entries are evicted first.
+ * @param expireAfterWrite how long a successful result is kept after it has been computed.
+ * @param negativeTtl how long a failed result is kept, during which the function is not invoked again for that key.
+ * @param refreshAfterWrite age after which a successful result is recomputed in the background on its next access.
+ * @param refreshExecutor the executor running the background refreshes.
+ * @param clock the clock the ages of the entries are measured on.
+ */
+public record CacheSpec(
+        long maximumSize,
+        Duration expireAfterWrite,
+        Duration negativeTtl,
+        Duration refreshAfterWrite,
+        Executor refreshExecutor,
+        Clock clock) {
+
+    public CacheSpec {
+        Objects.requireNonNull(expireAfterWrite, "Expiry should not be null");
+        Objects.requireNonNull(negativeTtl, "Negative TTL should not be null");
+        Objects.requireNonNull(refreshAfterWrite, "Refresh delay should not be null");
+        Objects.requireNonNull(refreshExecutor, "Refresh executor should not be null");
+        Objects.requireNonNull(clock, "Clock should not be null");
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size should be positive");
+        }
+        if (expireAfterWrite.isNegative() || negativeTtl.isNegative() || refreshAfterWrite.isNegative()) {
+            throw new IllegalArgumentException("Durations should not be negative");
+        }
+    }
+
+    public CacheSpec(
+            long maximumSize,
+            Duration expireAfterWrite,
+            Duration negativeTtl,
+            Duration refreshAfterWrite,
+            Executor refreshExecutor) {
+        this(maximumSize, expireAfterWrite, negativeTtl, refreshAfterWrite, refreshExecutor, Clock.SYSTEM);
+    }
+
+    public static CacheSpec maximumSize(long maximumSize) {
+        return new CacheSpec(maximumSize, Duration.ZERO, Duration.ZERO, Duration.ZERO, ForkJoinPool.commonPool());
+    }
+
+    public CacheSpec withExpireAfterWrite(Duration expireAfterWrite) {
+        return new CacheSpec(maximumSize, expireAfterWrite, negativeTtl, refreshAfterWrite, refreshExecutor, clock);
+    }
+
+    public CacheSpec withNegativeTtl(Duration negativeTtl) {
+        return new CacheSpec(maximumSize, expireAfterWrite, negativeTtl, refreshAfterWrite, refreshExecutor, clock);
+    }
+
+    public CacheSpec withRefreshAfterWrite(Duration refreshAfterWrite) {
+        return new CacheSpec(maximumSize, expireAfterWrite, negativeTtl, refreshAfterWrite, refreshExecutor, clock);
+    }
+
+    public CacheSpec withRefreshExecutor(Executor refreshExecutor) {
+        return new CacheSpec(maximumSize, expireAfterWrite, negativeTtl, refreshAfterWrite, refreshExecutor, clock);
+    }
+
+    public CacheSpec withClock(Clock clock) {
+        return new CacheSpec(maximumSize, expireAfterWrite, negativeTtl, refreshAfterWrite, refreshExecutor, clock);
+    }
+}
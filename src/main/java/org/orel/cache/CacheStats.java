@@ -0,0 +1,16 @@
+package org.orel.cache;
+
+/**
+ * A point in time snapshot of the counters of a {@link MemoizedFunction}.
+ */
+public record CacheStats(long hitCount, long missCount, long evictionCount, long refreshCount) {
+
+    public long requestCount() {
+        return hitCount + missCount;
+    }
+
+    public double hitRate() {
+        var requestCount = requestCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+}
@@ -0,0 +1,342 @@
+package org.orel.cache;
+
+import org.orel.monad.Try;
+import org.orel.operator.FaillibleFunction;
+import org.orel.time.Clock;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Caches the outcome of an idempotent function by input, as described by a {@link CacheSpec}. <br><br>
+ *
+ * Eviction follows a segmented LRU: new entries enter a probation segment and are promoted to a protected segment when
+ * they are read again, so a burst of one-off keys cannot flush the entries that are actually reused. Concurrent calls
+ * for the same missing key share a single invocation of the function. <br><br>
+ *
+ * Note: expired entries are removed when they are next accessed or when they are evicted.
+ *
+ * @param <T> the type of the input, used as the cache key.
+ * @param <R> the type of the result.
+ */
+public class MemoizedFunction<T, R> implements Function<T, Try<R>> {
+    private final FaillibleFunction<? super T, ? extends R, Exception> delegate;
+
+    private final CacheSpec cacheSpec;
+
+    private final long expireAfterWriteNanos;
+
+    private final long negativeTtlNanos;
+
+    private final long refreshAfterWriteNanos;
+
+    private final ConcurrentHashMap<T, Node<T, R>> data = new ConcurrentHashMap<>();
+
+    private final SegmentedLru evictionPolicy;
+
+    private final Clock clock;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private final LongAdder refreshCount = new LongAdder();
+
+    public MemoizedFunction(FaillibleFunction<? super T, ? extends R, Exception> function, CacheSpec cacheSpec) {
+        this.delegate = Objects.requireNonNull(function, "Function should not be null");
+        this.cacheSpec = Objects.requireNonNull(cacheSpec, "Cache spec should not be null");
+        this.expireAfterWriteNanos = cacheSpec.expireAfterWrite().toNanos();
+        this.negativeTtlNanos = cacheSpec.negativeTtl().toNanos();
+        this.refreshAfterWriteNanos = cacheSpec.refreshAfterWrite().toNanos();
+        this.evictionPolicy = new SegmentedLru(cacheSpec.maximumSize());
+        this.clock = cacheSpec.clock();
+    }
+
+    @Override
+    public Try<R> apply(T key) {
+        Objects.requireNonNull(key, "Key should not be null");
+        while (true) {
+            var node = data.get(key);
+            if (node == null) {
+                var created = new Node<T, R>(key);
+                node = data.putIfAbsent(key, created);
+                if (node == null) {
+                    missCount.increment();
+                    return load(created);
+                }
+            }
+
+            var entry = node.entry;
+            if (entry == null) {
+                // another caller is already computing this key: not a hit, the value was not in the cache
+                missCount.increment();
+                return awaitLoad(node);
+            }
+
+            var now = clock.nanoTime();
+            if (isExpired(entry, now)) {
+                if (data.remove(key, node)) {
+                    evictionPolicy.remove(node);
+                }
+                continue;
+            }
+
+            hitCount.increment();
+            evictionPolicy.recordAccess(node);
+            if (shouldRefresh(entry, now)) {
+                refresh(node);
+            }
+            return entry.value();
+        }
+    }
+
+    public void invalidate(T key) {
+        var node = data.remove(key);
+        if (node != null) {
+            evictionPolicy.remove(node);
+        }
+    }
+
+    public void invalidateAll() {
+        data.keySet().forEach(this::invalidate);
+    }
+
+    public long estimatedSize() {
+        return data.mappingCount();
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum(), refreshCount.sum());
+    }
+
+    /**
+     * An {@link Error} thrown by the function is rethrown to the callers waiting for the same key, rather than leaving
+     * them waiting on a load that will never complete.
+     */
+    private Try<R> load(Node<T, R> node) {
+        Try<R> value;
+        try {
+            value = compute(node.key);
+        } catch (Throwable t) {
+            data.remove(node.key, node);
+            node.loading.completeExceptionally(t);
+            throw t;
+        }
+        node.entry = new Entry<>(value, clock.nanoTime());
+        node.loading.complete(value);
+
+        if (value.isSuccess() || negativeTtlNanos > 0) {
+            evictionPolicy.add(node);
+        } else {
+            data.remove(node.key, node);
+        }
+        return value;
+    }
+
+    private Try<R> awaitLoad(Node<T, R> node) {
+        try {
+            return node.loading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private void refresh(Node<T, R> node) {
+        if (!node.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            cacheSpec.refreshExecutor().execute(() -> {
+                try {
+                    var value = compute(node.key);
+                    // a failed refresh keeps serving the previous value until it expires
+                    if (value.isSuccess()) {
+                        node.entry = new Entry<>(value, clock.nanoTime());
+                        refreshCount.increment();
+                    }
+                } finally {
+                    node.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            node.refreshing.set(false);
+        }
+    }
+
+    private Try<R> compute(T key) {
+        try {
+            return Try.success(delegate.apply(key));
+        } catch (Exception e) {
+            return Try.failure(e);
+        }
+    }
+
+    private boolean isExpired(Entry<R> entry, long now) {
+        var ttl = entry.value().isSuccess() ? expireAfterWriteNanos : negativeTtlNanos;
+        return ttl > 0 && now - entry.writeTime() >= ttl;
+    }
+
+    private boolean shouldRefresh(Entry<R> entry, long now) {
+        return refreshAfterWriteNanos > 0
+                && entry.value().isSuccess()
+                && now - entry.writeTime() >= refreshAfterWriteNanos;
+    }
+
+    private record Entry<R>(Try<R> value, long writeTime) {}
+
+    private static final class Node<T, R> {
+        final T key;
+
+        final CompletableFuture<Try<R>> loading = new CompletableFuture<>();
+
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        volatile Entry<R> entry;
+
+        // guarded by the eviction policy lock
+        Node<T, R> prev;
+
+        Node<T, R> next;
+
+        boolean isProtected;
+
+        Node(T key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Reads reorder the segments only when the lock is free: under contention the access is dropped rather than making
+     * the hit path wait, which only makes the eviction order slightly less precise.
+     */
+    private final class SegmentedLru {
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final Node<T, R> probation = sentinel();
+
+        private final Node<T, R> protectedSegment = sentinel();
+
+        private final long maximumSize;
+
+        private final long protectedMaximumSize;
+
+        private long probationSize;
+
+        private long protectedSize;
+
+        SegmentedLru(long maximumSize) {
+            this.maximumSize = maximumSize;
+            this.protectedMaximumSize = maximumSize * 4 / 5;
+        }
+
+        void add(Node<T, R> node) {
+            lock.lock();
+            try {
+                // the key may have been invalidated while it was loading
+                if (data.get(node.key) != node || node.prev != null) {
+                    return;
+                }
+                link(probation, node);
+                node.isProtected = false;
+                probationSize++;
+                evict();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void recordAccess(Node<T, R> node) {
+            if (!lock.tryLock()) {
+                return;
+            }
+            try {
+                if (node.prev == null) {
+                    return;
+                }
+                unlink(node);
+                link(protectedSegment, node);
+                if (node.isProtected) {
+                    return;
+                }
+                node.isProtected = true;
+                probationSize--;
+                protectedSize++;
+                if (protectedSize > protectedMaximumSize) {
+                    var demoted = protectedSegment.next;
+                    unlink(demoted);
+                    link(probation, demoted);
+                    demoted.isProtected = false;
+                    protectedSize--;
+                    probationSize++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(Node<T, R> node) {
+            lock.lock();
+            try {
+                removeLocked(node);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void evict() {
+            while (probationSize + protectedSize > maximumSize) {
+                var victim = probationSize > 0 ? probation.next : protectedSegment.next;
+                removeLocked(victim);
+                if (data.remove(victim.key, victim)) {
+                    evictionCount.increment();
+                }
+            }
+        }
+
+        private void removeLocked(Node<T, R> node) {
+            if (node.prev == null) {
+                return;
+            }
+            unlink(node);
+            if (node.isProtected) {
+                protectedSize--;
+            } else {
+                probationSize--;
+            }
+        }
+
+        private Node<T, R> sentinel() {
+            var sentinel = new Node<T, R>(null);
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            return sentinel;
+        }
+
+        // the sentinel's next is the least recently used node and its prev the most recently used one
+        private void link(Node<T, R> sentinel, Node<T, R> node) {
+            node.prev = sentinel.prev;
+            node.next = sentinel;
+            sentinel.prev.next = node;
+            sentinel.prev = node;
+        }
+
+        private void unlink(Node<T, R> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.orel.failover;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exponentially weighted moving average updated with compare-and-set only, the double being stored as its raw bits.
+ */
+class Ewma {
+    private final double alpha;
+
+    private final AtomicLong bits;
+
+    Ewma(double alpha, double initialValue) {
+        this.alpha = alpha;
+        this.bits = new AtomicLong(Double.doubleToRawLongBits(initialValue));
+    }
+
+    double get() {
+        return Double.longBitsToDouble(bits.get());
+    }
+
+    void update(double sample) {
+        while (true) {
+            var current = bits.get();
+            var average = Double.longBitsToDouble(current);
+            // NaN means no sample has been recorded yet
+            var updated = Double.isNaN(average) ? sample : average + alpha * (sample - average);
+            if (bits.compareAndSet(current, Double.doubleToRawLongBits(updated))) {
+                return;
+            }
+        }
+    }
+}
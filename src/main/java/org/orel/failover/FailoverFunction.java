@@ -0,0 +1,99 @@
+package org.orel.failover;
+
+import org.orel.CancellationToken;
+import org.orel.Deadline;
+import org.orel.RetryConfig;
+import org.orel.operator.FaillibleFunction;
+import org.orel.policy.RetryPolicy;
+import org.orel.retryable.RetryableFunction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Retries a function across equivalent targets (e.g. replicas), moving to a different target on each retry. The
+ * target of every attempt is chosen by a {@link SelectionStrategy} from the success rate, latency and in flight
+ * attempts observed on each target. <br><br>
+ *
+ * The health of the targets is tracked across calls, so an instance is meant to be created once and shared:
+ *
+ * <pre>
+ *      var lookup = new FailoverFunction<>(List.of(primary::find, replica::find), retryConfig);
+ *
+ *      Try<User> user = Try.of(lookup).apply(userId);
+ * </pre>
+ **/
+public class FailoverFunction<T, R> implements FaillibleFunction<T, R, Exception> {
+    private final List<Target<T, R>> targets;
+
+    private final SelectionStrategy selectionStrategy;
+
+    private final RetryPolicy policy;
+
+    private final Deadline deadline;
+
+    private final CancellationToken cancellationToken;
+
+    public FailoverFunction(
+            List<? extends FaillibleFunction<? super T, ? extends R, Exception>> targets, RetryConfig retryConfig) {
+        this(targets, SelectionStrategy.HEALTH_WEIGHTED, retryConfig);
+    }
+
+    public FailoverFunction(
+            List<? extends FaillibleFunction<? super T, ? extends R, Exception>> targets,
+            SelectionStrategy selectionStrategy,
+            RetryConfig retryConfig) {
+        this(targets, selectionStrategy, retryConfig.toPolicy(), retryConfig.deadline(),
+                retryConfig.cancellationToken());
+    }
+
+    /**
+     * The latencies of the targets are measured on the clock of the policy.
+     */
+    public FailoverFunction(
+            List<? extends FaillibleFunction<? super T, ? extends R, Exception>> targets,
+            SelectionStrategy selectionStrategy,
+            RetryPolicy policy) {
+        this(targets, selectionStrategy, policy, null, null);
+    }
+
+    private FailoverFunction(
+            List<? extends FaillibleFunction<? super T, ? extends R, Exception>> targets,
+            SelectionStrategy selectionStrategy,
+            RetryPolicy policy,
+            Deadline deadline,
+            CancellationToken cancellationToken) {
+        Objects.requireNonNull(targets, "Targets should not be null");
+        Objects.requireNonNull(policy, "Policy should not be null");
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("Targets should not be empty");
+        }
+        this.targets = new ArrayList<>(targets.size());
+        for (var target : targets) {
+            Objects.requireNonNull(target, "Target should not be null");
+            this.targets.add(new Target<>(this.targets.size(), target, policy.clock()));
+        }
+        this.selectionStrategy = Objects.requireNonNull(selectionStrategy, "Selection strategy should not be null");
+        this.policy = policy;
+        this.deadline = deadline;
+        this.cancellationToken = cancellationToken;
+    }
+
+    @Override
+    public R apply(T t) throws Exception {
+        var previousTarget = new int[] {-1};
+        FaillibleFunction<T, R, Exception> attempt = x -> {
+            var excluded = targets.size() > 1 ? previousTarget[0] : -1;
+            var index = selectionStrategy.select(targets, excluded);
+            previousTarget[0] = index;
+            return targets.get(index).apply(x);
+        };
+
+        return new RetryableFunction<>(attempt, policy, deadline, cancellationToken).apply(t);
+    }
+
+    public List<TargetStats> stats() {
+        return targets.stream().map(Target::stats).toList();
+    }
+}
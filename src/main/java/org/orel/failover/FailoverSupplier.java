@@ -0,0 +1,39 @@
+package org.orel.failover;
+
+import org.orel.RetryConfig;
+import org.orel.operator.FaillibleFunction;
+import org.orel.operator.FaillibleSupplier;
+
+import java.util.List;
+import java.util.Objects;
+
+public class FailoverSupplier<T> implements FaillibleSupplier<T, Exception> {
+    private final FailoverFunction<Void, T> delegate;
+
+    public FailoverSupplier(List<? extends FaillibleSupplier<? extends T, Exception>> targets, RetryConfig retryConfig) {
+        this(targets, SelectionStrategy.HEALTH_WEIGHTED, retryConfig);
+    }
+
+    public FailoverSupplier(
+            List<? extends FaillibleSupplier<? extends T, Exception>> targets,
+            SelectionStrategy selectionStrategy,
+            RetryConfig retryConfig) {
+        Objects.requireNonNull(targets, "Targets should not be null");
+        List<FaillibleFunction<Void, T, Exception>> functions = targets.stream()
+                .<FaillibleFunction<Void, T, Exception>>map(supplier -> {
+                    Objects.requireNonNull(supplier, "Target should not be null");
+                    return ignored -> supplier.get();
+                })
+                .toList();
+        this.delegate = new FailoverFunction<>(functions, selectionStrategy, retryConfig);
+    }
+
+    @Override
+    public T get() throws Exception {
+        return delegate.apply(null);
+    }
+
+    public List<TargetStats> stats() {
+        return delegate.stats();
+    }
+}
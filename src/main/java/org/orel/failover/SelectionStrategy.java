@@ -0,0 +1,79 @@
+package org.orel.failover;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Chooses the target of the next attempt of a {@link FailoverFunction}. The target of the previous attempt is never
+ * chosen again when another one is available.
+ */
+public enum SelectionStrategy {
+
+    /**
+     * Picks a target at random, weighted by the square of its success rate and inversely by the latency of its
+     * successes, so that a target failing most of its attempts is hardly picked however fast it fails.
+     */
+    HEALTH_WEIGHTED {
+        @Override
+        int select(List<? extends Target<?, ?>> targets, int excluded) {
+            var weights = new double[targets.size()];
+            var total = 0.0;
+            for (int i = 0; i < weights.length; i++) {
+                if (i != excluded) {
+                    total += weights[i] = weight(targets.get(i));
+                }
+            }
+
+            var point = ThreadLocalRandom.current().nextDouble(total);
+            for (int i = 0; i < weights.length; i++) {
+                point -= weights[i];
+                if (i != excluded && point < 0) {
+                    return i;
+                }
+            }
+            return weights.length - 1 == excluded ? weights.length - 2 : weights.length - 1;
+        }
+
+        private double weight(Target<?, ?> target) {
+            var latencyMillis = target.latencyNanos() / 1_000_000.0;
+            var successRate = target.successRate();
+            return Math.max(successRate * successRate, MIN_WEIGHT) / (1.0 + latencyMillis);
+        }
+    },
+
+    /**
+     * Picks the target with the fewest attempts in flight, the healthiest one on a tie.
+     */
+    LEAST_OUTSTANDING {
+        @Override
+        int select(List<? extends Target<?, ?>> targets, int excluded) {
+            // starting at a random offset spreads the load among equally good targets
+            var offset = ThreadLocalRandom.current().nextInt(targets.size());
+            var selected = -1;
+            for (int n = 0; n < targets.size(); n++) {
+                var i = (offset + n) % targets.size();
+                if (i != excluded && (selected < 0 || isBetter(targets.get(i), targets.get(selected)))) {
+                    selected = i;
+                }
+            }
+            return selected;
+        }
+
+        private boolean isBetter(Target<?, ?> candidate, Target<?, ?> selected) {
+            if (candidate.outstanding() != selected.outstanding()) {
+                return candidate.outstanding() < selected.outstanding();
+            }
+            return candidate.successRate() > selected.successRate();
+        }
+    };
+
+    /**
+     * Keeps the total weight positive when all the targets fail.
+     */
+    private static final double MIN_WEIGHT = 1e-9;
+
+    /**
+     * @param excluded the index of the target that must not be selected, or a negative value.
+     */
+    abstract int select(List<? extends Target<?, ?>> targets, int excluded);
+}
@@ -0,0 +1,62 @@
+package org.orel.failover;
+
+import org.orel.operator.FaillibleFunction;
+import org.orel.time.Clock;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+class Target<T, R> {
+    private static final double ALPHA = 0.2;
+
+    private final int index;
+
+    private final FaillibleFunction<? super T, ? extends R, Exception> delegate;
+
+    private final Clock clock;
+
+    private final Ewma successRate = new Ewma(ALPHA, 1.0);
+
+    private final Ewma latencyNanos = new Ewma(ALPHA, Double.NaN);
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    Target(int index, FaillibleFunction<? super T, ? extends R, Exception> delegate, Clock clock) {
+        this.index = index;
+        this.delegate = delegate;
+        this.clock = clock;
+    }
+
+    R apply(T t) throws Exception {
+        outstanding.incrementAndGet();
+        var start = clock.nanoTime();
+        try {
+            var result = delegate.apply(t);
+            successRate.update(1.0);
+            // a failure tells nothing of the latency of a success, and one failing fast would otherwise look healthy
+            latencyNanos.update(clock.nanoTime() - start);
+            return result;
+        } catch (Exception e) {
+            successRate.update(0.0);
+            throw e;
+        } finally {
+            outstanding.decrementAndGet();
+        }
+    }
+
+    int outstanding() {
+        return outstanding.get();
+    }
+
+    double successRate() {
+        return successRate.get();
+    }
+
+    double latencyNanos() {
+        var latency = latencyNanos.get();
+        return Double.isNaN(latency) ? 0.0 : latency;
+    }
+
+    TargetStats stats() {
+        return new TargetStats(index, successRate(), (long) latencyNanos(), outstanding());
+    }
+}
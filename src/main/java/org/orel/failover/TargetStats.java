@@ -0,0 +1,11 @@
+package org.orel.failover;
+
+/**
+ * A point in time snapshot of the health of one of the targets of a {@link FailoverFunction}.
+ *
+ * @param index the position of the target in the list it was given in.
+ * @param successRate the moving average of the outcomes, 1 meaning every recent attempt succeeded.
+ * @param latencyNanos the moving average of the attempt durations, successful or not.
+ * @param outstanding the number of attempts currently in flight.
+ */
+public record TargetStats(int index, double successRate, long latencyNanos, int outstanding) {}
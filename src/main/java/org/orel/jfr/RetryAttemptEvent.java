@@ -0,0 +1,29 @@
+package org.orel.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.orel.RetryAttempt")
+@Label("Retry Attempt")
+@Category({"RetryMonad", "Retry"})
+@Description("One attempt of a retryable operation")
+@StackTrace(false)
+public class RetryAttemptEvent extends Event {
+
+    @Label("Policy")
+    String policy;
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    @Label("Exception Class")
+    @Description("The exception the attempt failed with, if any")
+    Class<?> exceptionClass;
+}
@@ -0,0 +1,28 @@
+package org.orel.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("org.orel.RetryBackoff")
+@Label("Retry Backoff")
+@Category({"RetryMonad", "Retry"})
+@Description("Wait between two attempts of a retryable operation")
+@StackTrace(false)
+public class RetryBackoffEvent extends Event {
+
+    @Label("Policy")
+    String policy;
+
+    @Label("Attempt")
+    @Description("The failed attempt after which the backoff happens")
+    int attempt;
+
+    @Label("Planned Delay")
+    @Timespan(Timespan.MILLISECONDS)
+    long plannedDelay;
+}
@@ -0,0 +1,119 @@
+package org.orel.jfr;
+
+/**
+ * Emits the Flight Recorder events of the library. Every event type is checked with {@code isEnabled()} on a shared
+ * instance before an event is allocated, so when no recording enables them the cost is a disabled check and no
+ * allocation: the begin methods then return null, which the end methods ignore. <br><br>
+ *
+ * The {@code retrymonad.jfc} settings file shipped next to this class enables all of them, e.g.
+ * {@code -XX:StartFlightRecording:settings=/path/to/retrymonad.jfc}.
+ */
+public final class RetryEvents {
+    private static final RetryAttemptEvent ATTEMPT = new RetryAttemptEvent();
+
+    private static final RetryBackoffEvent BACKOFF = new RetryBackoffEvent();
+
+    private static final RetryExhaustedEvent EXHAUSTED = new RetryExhaustedEvent();
+
+    private static final RetryRejectedEvent REJECTED = new RetryRejectedEvent();
+
+    private static final TryFailureEvent TRY_FAILURE = new TryFailureEvent();
+
+    private RetryEvents() {}
+
+    /**
+     * @return the event of the attempt, or null if no recording enables it.
+     */
+    public static RetryAttemptEvent beginAttempt() {
+        if (!ATTEMPT.isEnabled()) {
+            return null;
+        }
+        var event = new RetryAttemptEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @param event the event returned by {@link #beginAttempt()}, possibly null.
+     * @param exception the exception the attempt failed with, or null if it succeeded.
+     */
+    public static void endAttempt(RetryAttemptEvent event, String policy, int attempt, Exception exception) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.policy = policy;
+            event.attempt = attempt;
+            event.succeeded = exception == null;
+            event.exceptionClass = exception == null ? null : exception.getClass();
+            event.commit();
+        }
+    }
+
+    /**
+     * @return the event of the backoff, or null if no recording enables it.
+     */
+    public static RetryBackoffEvent beginBackoff() {
+        if (!BACKOFF.isEnabled()) {
+            return null;
+        }
+        var event = new RetryBackoffEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @param event the event returned by {@link #beginBackoff()}, possibly null.
+     */
+    public static void endBackoff(RetryBackoffEvent event, String policy, int attempt, long plannedDelayMillis) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.policy = policy;
+            event.attempt = attempt;
+            event.plannedDelay = plannedDelayMillis;
+            event.commit();
+        }
+    }
+
+    public static void exhausted(String policy, int attempts, Exception lastException) {
+        if (!EXHAUSTED.isEnabled()) {
+            return;
+        }
+        var event = new RetryExhaustedEvent();
+        if (event.shouldCommit()) {
+            event.policy = policy;
+            event.attempts = attempts;
+            event.exceptionClass = lastException == null ? null : lastException.getClass();
+            event.commit();
+        }
+    }
+
+    public static void rejected(String policy, int attempt, String reason) {
+        if (!REJECTED.isEnabled()) {
+            return;
+        }
+        var event = new RetryRejectedEvent();
+        if (event.shouldCommit()) {
+            event.policy = policy;
+            event.attempt = attempt;
+            event.reason = reason;
+            event.commit();
+        }
+    }
+
+    public static void tryFailed(Exception exception) {
+        if (!TRY_FAILURE.isEnabled()) {
+            return;
+        }
+        var event = new TryFailureEvent();
+        if (event.shouldCommit()) {
+            event.exceptionClass = exception == null ? null : exception.getClass();
+            event.message = exception == null ? null : exception.getMessage();
+            event.commit();
+        }
+    }
+}
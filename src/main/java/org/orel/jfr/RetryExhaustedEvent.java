@@ -0,0 +1,24 @@
+package org.orel.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.orel.RetryExhausted")
+@Label("Retry Exhausted")
+@Category({"RetryMonad", "Retry"})
+@Description("A retryable operation failed after its last allowed attempt")
+public class RetryExhaustedEvent extends Event {
+
+    @Label("Policy")
+    String policy;
+
+    @Label("Attempts")
+    int attempts;
+
+    @Label("Exception Class")
+    @Description("The exception the last attempt failed with")
+    Class<?> exceptionClass;
+}
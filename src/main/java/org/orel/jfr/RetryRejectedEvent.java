@@ -0,0 +1,23 @@
+package org.orel.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.orel.RetryRejected")
+@Label("Retry Rejected")
+@Category({"RetryMonad", "Retry"})
+@Description("An attempt was not performed because a limit denied it")
+public class RetryRejectedEvent extends Event {
+
+    @Label("Policy")
+    String policy;
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Reason")
+    String reason;
+}
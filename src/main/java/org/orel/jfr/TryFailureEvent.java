@@ -0,0 +1,20 @@
+package org.orel.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.orel.TryFailure")
+@Label("Try Failure")
+@Category({"RetryMonad", "Try"})
+@Description("A computation run in a Try failed")
+public class TryFailureEvent extends Event {
+
+    @Label("Exception Class")
+    Class<?> exceptionClass;
+
+    @Label("Message")
+    String message;
+}
@@ -0,0 +1,175 @@
+package org.orel.keyed;
+
+import org.orel.time.Clock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Holds one instance of some resilience state, e.g. a {@link org.orel.policy.RetryPolicy} with its own rate limiter,
+ * per key such as a tenant or a host, created on demand by a factory. The number of instances is bounded, so
+ * isolating thousands of keys costs a fixed amount of memory: instances unused for the idle time are dropped, and
+ * the least recently used ones are evicted once the maximum size is exceeded. <br><br>
+ *
+ * A lookup of an existing key is a map read and a timestamp write, it never locks. Evictions are done in batches by
+ * the thread inserting past the maximum size, so the size may exceed it briefly under concurrent insertions. An
+ * evicted key gets a fresh instance on its next lookup.
+ *
+ * @param <K> the type of the key.
+ * @param <V> the type of the state held per key.
+ */
+public class KeyedRegistry<K, V> {
+    private final Function<? super K, ? extends V> factory;
+
+    private final long maximumSize;
+
+    private final long expireAfterAccessNanos;
+
+    private final Clock clock;
+
+    private final ConcurrentHashMap<K, Entry<V>> data = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param expireAfterAccess ZERO keeps the instances until they are evicted by size.
+     */
+    public KeyedRegistry(long maximumSize, Duration expireAfterAccess, Function<? super K, ? extends V> factory) {
+        this(maximumSize, expireAfterAccess, factory, Clock.SYSTEM);
+    }
+
+    public KeyedRegistry(
+            long maximumSize, Duration expireAfterAccess, Function<? super K, ? extends V> factory, Clock clock) {
+        Objects.requireNonNull(expireAfterAccess, "Expire after access should not be null");
+        if (maximumSize < 1 || expireAfterAccess.isNegative()) {
+            throw new IllegalArgumentException("Maximum size should be positive and expire after access not negative");
+        }
+        this.factory = Objects.requireNonNull(factory, "Factory should not be null");
+        this.clock = Objects.requireNonNull(clock, "Clock should not be null");
+        this.maximumSize = maximumSize;
+        this.expireAfterAccessNanos = expireAfterAccess.toNanos();
+    }
+
+    public V get(K key) {
+        Objects.requireNonNull(key, "Key should not be null");
+        var now = clock.nanoTime();
+        var entry = data.get(key);
+        if (entry != null) {
+            if (!isExpired(entry, now)) {
+                entry.lastAccess = now;
+                return entry.value;
+            }
+            if (data.remove(key, entry)) {
+                evictionCount.increment();
+            }
+        }
+
+        var created = new boolean[1];
+        entry = data.computeIfAbsent(key, k -> {
+            created[0] = true;
+            return new Entry<>(factory.apply(k), now);
+        });
+        if (created[0] && data.size() > maximumSize) {
+            evict();
+        }
+        entry.lastAccess = now;
+        return entry.value;
+    }
+
+    /**
+     * @return the instance of the key, or null if it has none.
+     */
+    public V getIfPresent(K key) {
+        var entry = data.get(key);
+        return entry == null || isExpired(entry, clock.nanoTime()) ? null : entry.value;
+    }
+
+    public void remove(K key) {
+        data.remove(key);
+    }
+
+    public long estimatedSize() {
+        return data.mappingCount();
+    }
+
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Drops the instances idle for longer than the expiry, which is otherwise done when their key is next looked up
+     * or when the registry is full.
+     */
+    public void cleanUp() {
+        evictionLock.lock();
+        try {
+            removeExpired(clock.nanoTime());
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return expireAfterAccessNanos > 0 && now - entry.lastAccess >= expireAfterAccessNanos;
+    }
+
+    /**
+     * Brings the size down to 90% of the maximum at once rather than one entry per insertion, so the cost of sorting
+     * the entries by last access is amortized over the following insertions.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            removeExpired(clock.nanoTime());
+            var excess = data.size() - maximumSize * 9 / 10;
+            if (excess <= 0) {
+                return;
+            }
+            var entries = new ArrayList<Map.Entry<K, Entry<V>>>(data.entrySet());
+            entries.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+            for (int i = 0; i < entries.size() && excess > 0; i++) {
+                var victim = entries.get(i);
+                if (data.remove(victim.getKey(), victim.getValue())) {
+                    evictionCount.increment();
+                    excess--;
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void removeExpired(long now) {
+        if (expireAfterAccessNanos == 0) {
+            return;
+        }
+        for (var entry : data.entrySet()) {
+            if (isExpired(entry.getValue(), now) && data.remove(entry.getKey(), entry.getValue())) {
+                evictionCount.increment();
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+
+        // written without synchronization on every hit: a lost update only makes the entry look slightly older
+        volatile long lastAccess;
+
+        Entry(V value, long lastAccess) {
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
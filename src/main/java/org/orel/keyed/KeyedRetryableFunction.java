@@ -0,0 +1,63 @@
+package org.orel.keyed;
+
+import org.orel.operator.FaillibleFunction;
+import org.orel.policy.RetryPolicy;
+import org.orel.retryable.RetryableFunction;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Retries the function with a policy of its own per key derived from the input, so that the rate limiter of a tenant
+ * or a host only throttles the calls made on its behalf. <br><br>
+ *
+ * Example:
+ *
+ * <pre>
+ *      var perTenant = new KeyedRetryableFunction<>(
+ *          client::send,
+ *          Request::tenant,
+ *          tenant -> basePolicy.toBuilder().rateLimiter( RateLimiter.tokenBucket( 50, 10, Duration.ZERO ) ).build(),
+ *          10_000,
+ *          Duration.ofMinutes( 10 ) );
+ * </pre>
+ *
+ * The per key policies live in a {@link KeyedRegistry}: an evicted key starts over with a fresh policy.
+ */
+public class KeyedRetryableFunction<T, K, R> implements FaillibleFunction<T, R, Exception> {
+    private final Function<? super T, ? extends K> keyFunction;
+
+    private final KeyedRegistry<K, RetryableFunction<T, R>> retryableFunctions;
+
+    public KeyedRetryableFunction(
+            FaillibleFunction<? super T, ? extends R, Exception> function,
+            Function<? super T, ? extends K> keyFunction,
+            Function<? super K, RetryPolicy> policyFactory,
+            long maximumKeys,
+            Duration expireAfterAccess) {
+        Objects.requireNonNull(function, "Function should not be null");
+        Objects.requireNonNull(policyFactory, "Policy factory should not be null");
+        this.keyFunction = Objects.requireNonNull(keyFunction, "Key function should not be null");
+        this.retryableFunctions = new KeyedRegistry<>(
+                maximumKeys, expireAfterAccess, key -> new RetryableFunction<>(function, policyFactory.apply(key)));
+    }
+
+    @Override
+    public R apply(T t) throws Exception {
+        var key = Objects.requireNonNull(keyFunction.apply(t), "Key should not be null");
+        return retryableFunctions.get(key).apply(t);
+    }
+
+    /**
+     * @return the policy currently used for the key, or null if it has none.
+     */
+    public RetryPolicy policyOf(K key) {
+        var retryableFunction = retryableFunctions.getIfPresent(key);
+        return retryableFunction == null ? null : retryableFunction.policy();
+    }
+
+    public long estimatedSize() {
+        return retryableFunctions.estimatedSize();
+    }
+}
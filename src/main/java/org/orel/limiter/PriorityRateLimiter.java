@@ -0,0 +1,198 @@
+package org.orel.limiter;
+
+import org.orel.policy.Priority;
+import org.orel.time.Clock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Shares the permits of a delegate rate limiter between the {@link Priority} classes of the work asking for them.
+ * <br><br>
+ *
+ * A caller takes a permit right away when nobody of its class or a higher one is waiting. Otherwise it joins the
+ * lock-free queue of its class and parks until it is next: the head of the highest class, unless some head has waited
+ * longer than the max starvation, in which case the oldest of those goes first whatever its class. The one next
+ * leaves its queue to wait on the delegate, waking up the following one. At most two callers wait on the delegate at
+ * once, so the ordering between classes is decided here rather than by the delegate's own queue. <br><br>
+ *
+ * The attempts of a {@link org.orel.policy.RetryPolicy} with this rate limiter ask for their permits with the priority
+ * of the policy, other callers with {@link Priority#NORMAL}. They wait for at most the max wait of the delegate, which
+ * should not be zero: callers that never wait never queue either, and would take the permits in arrival order.
+ */
+public class PriorityRateLimiter implements RateLimiter {
+    // one caller sleeping until its permit and the next one reserving the following, so that no permit goes unused
+    // while the waiters wake up, and a higher class arriving waits for two permits at most
+    private static final int MAX_IN_DELEGATE = 2;
+
+    private final RateLimiter delegate;
+
+    private final long maxStarvationNanos;
+
+    private final Clock clock;
+
+    private final List<ConcurrentLinkedQueue<Waiter>> queues;
+
+    private final AtomicInteger inDelegate = new AtomicInteger();
+
+    public PriorityRateLimiter(RateLimiter delegate, Duration maxStarvation) {
+        this(delegate, maxStarvation, Clock.SYSTEM);
+    }
+
+    public PriorityRateLimiter(RateLimiter delegate, Duration maxStarvation, Clock clock) {
+        this.delegate = Objects.requireNonNull(delegate, "Delegate should not be null");
+        Objects.requireNonNull(maxStarvation, "Max starvation should not be null");
+        this.clock = Objects.requireNonNull(clock, "Clock should not be null");
+        if (maxStarvation.isNegative()) {
+            throw new IllegalArgumentException("Max starvation should not be negative");
+        }
+        if (delegate.maxWait().isZero()) {
+            throw new IllegalArgumentException("Delegate should have a max wait for its callers to be prioritized");
+        }
+        this.maxStarvationNanos = maxStarvation.toNanos();
+        var queues = new ArrayList<ConcurrentLinkedQueue<Waiter>>();
+        for (int i = 0; i < Priority.values().length; i++) {
+            queues.add(new ConcurrentLinkedQueue<>());
+        }
+        this.queues = List.copyOf(queues);
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        return tryAcquireNow(Priority.NORMAL);
+    }
+
+    @Override
+    public boolean tryAcquire(Duration timeout) throws InterruptedException {
+        return tryAcquire(Priority.NORMAL, timeout);
+    }
+
+    @Override
+    public boolean tryAcquire(Priority priority, Duration timeout) throws InterruptedException {
+        Objects.requireNonNull(priority, "Priority should not be null");
+        if (tryAcquireNow(priority)) {
+            return true;
+        }
+        var timeoutNanos = timeout.toNanos();
+        if (timeoutNanos <= 0) {
+            return false;
+        }
+
+        var waiter = new Waiter(Thread.currentThread(), priority, clock.nanoTime());
+        var queue = queues.get(priority.ordinal());
+        queue.offer(waiter);
+        var deadline = waiter.since + timeoutNanos;
+        var queued = true;
+        try {
+            while (true) {
+                var now = clock.nanoTime();
+                var remaining = deadline - now;
+                if (next(now) == waiter && enterDelegate()) {
+                    queue.remove(waiter);
+                    queued = false;
+                    wakeUpNext();
+                    try {
+                        return remaining > 0 ? delegate.tryAcquire(Duration.ofNanos(remaining)) : delegate.tryAcquire();
+                    } finally {
+                        inDelegate.decrementAndGet();
+                        wakeUpNext();
+                    }
+                }
+                if (remaining <= 0) {
+                    return false;
+                }
+                // wake up once starving, when the waiter goes ahead of the higher classes
+                var untilStarving = waiter.since + maxStarvationNanos - now;
+                LockSupport.parkNanos(this, untilStarving > 0 ? Math.min(remaining, untilStarving) : remaining);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            if (queued) {
+                queue.remove(waiter);
+                wakeUpNext();
+            }
+        }
+    }
+
+    @Override
+    public Duration maxWait() {
+        return delegate.maxWait();
+    }
+
+    /**
+     * @return the number of callers of the class waiting for a permit.
+     */
+    public int waiting(Priority priority) {
+        return queues.get(priority.ordinal()).size();
+    }
+
+    private boolean tryAcquireNow(Priority priority) {
+        var now = clock.nanoTime();
+        var next = next(now);
+        var overtaking = next != null
+                && (next.priority.compareTo(priority) <= 0 || now - next.since >= maxStarvationNanos);
+        return !overtaking && delegate.tryAcquire();
+    }
+
+    private boolean enterDelegate() {
+        var count = inDelegate.get();
+        while (count < MAX_IN_DELEGATE) {
+            if (inDelegate.compareAndSet(count, count + 1)) {
+                return true;
+            }
+            count = inDelegate.get();
+        }
+        return false;
+    }
+
+    private void wakeUpNext() {
+        var next = next(clock.nanoTime());
+        if (next != null) {
+            LockSupport.unpark(next.thread);
+        }
+    }
+
+    /**
+     * @return the waiter to serve next, or null if nobody waits.
+     */
+    private Waiter next(long now) {
+        Waiter highest = null;
+        Waiter oldestStarving = null;
+        for (var queue : queues) {
+            var head = queue.peek();
+            if (head == null) {
+                continue;
+            }
+            if (highest == null) {
+                highest = head;
+            }
+            var starving = now - head.since >= maxStarvationNanos;
+            if (starving && (oldestStarving == null || head.since - oldestStarving.since < 0)) {
+                oldestStarving = head;
+            }
+        }
+        return oldestStarving != null ? oldestStarving : highest;
+    }
+
+    // compared by identity, in the queues
+    private static final class Waiter {
+        final Thread thread;
+
+        final Priority priority;
+
+        final long since;
+
+        Waiter(Thread thread, Priority priority, long since) {
+            this.thread = thread;
+            this.priority = priority;
+            this.since = since;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.orel.limiter;
+
+import org.orel.operator.FaillibleConsumer;
+import org.orel.operator.FaillibleFunction;
+import org.orel.operator.FaillibleRunnable;
+import org.orel.operator.FaillibleSupplier;
+import org.orel.policy.Priority;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Limits the rate at which operations are performed. Implementations are lock-free: their state is only updated with
+ * compare-and-set, so they can be shared by many threads. <br><br>
+ *
+ * A rate limiter can decorate any operator or be attached to a {@link org.orel.RetryConfig}, in which case every
+ * attempt, including the retries, needs a permit.
+ */
+public interface RateLimiter {
+
+    /**
+     * Acquires a permit if one is available right now, without waiting.
+     */
+    boolean tryAcquire();
+
+    /**
+     * Acquires a permit, waiting for at most the given timeout for one to become available.
+     */
+    boolean tryAcquire(Duration timeout) throws InterruptedException;
+
+    /**
+     * How long {@link #acquirePermission()} waits for a permit.
+     */
+    Duration maxWait();
+
+    /**
+     * Acquires a permit on behalf of work of the given class, waiting for at most the given timeout. Only a
+     * {@link #prioritized(RateLimiter, Duration) prioritized} rate limiter tells the classes apart.
+     */
+    default boolean tryAcquire(Priority priority, Duration timeout) throws InterruptedException {
+        return timeout.isZero() ? tryAcquire() : tryAcquire(timeout);
+    }
+
+    default void acquirePermission() throws RequestNotPermittedException {
+        acquirePermission(Priority.NORMAL);
+    }
+
+    /**
+     * Acquires a permit on behalf of work of the given class, waiting for at most {@link #maxWait()}.
+     */
+    default void acquirePermission(Priority priority) throws RequestNotPermittedException {
+        var maxWait = maxWait();
+        try {
+            if (tryAcquire(priority, maxWait)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequestNotPermittedException("Interrupted while waiting for a permit", e);
+        }
+        throw new RequestNotPermittedException(String.format("No permit available within %s", maxWait));
+    }
+
+    default <T, R> FaillibleFunction<T, R, Exception> decorateFunction(
+            FaillibleFunction<? super T, ? extends R, Exception> function) {
+        Objects.requireNonNull(function, "Function should not be null");
+        return t -> {
+            acquirePermission();
+            return function.apply(t);
+        };
+    }
+
+    default <T> FaillibleSupplier<T, Exception> decorateSupplier(FaillibleSupplier<? extends T, Exception> supplier) {
+        Objects.requireNonNull(supplier, "Supplier should not be null");
+        return () -> {
+            acquirePermission();
+            return supplier.get();
+        };
+    }
+
+    default FaillibleRunnable<Exception> decorateRunnable(FaillibleRunnable<Exception> runnable) {
+        Objects.requireNonNull(runnable, "Runnable should not be null");
+        return () -> {
+            acquirePermission();
+            runnable.apply();
+        };
+    }
+
+    default <T> FaillibleConsumer<T, Exception> decorateConsumer(FaillibleConsumer<? super T, Exception> consumer) {
+        Objects.requireNonNull(consumer, "Consumer should not be null");
+        return t -> {
+            acquirePermission();
+            consumer.accept(t);
+        };
+    }
+
+    /**
+     * Allows bursts of up to {@code burst} permits, refilled at {@code permitsPerSecond}.
+     */
+    static RateLimiter tokenBucket(double permitsPerSecond, int burst, Duration maxWait) {
+        return new TokenBucketRateLimiter(permitsPerSecond, burst, maxWait);
+    }
+
+    /**
+     * Allows at most {@code limit} permits over any sliding window of the given length.
+     */
+    static RateLimiter slidingWindow(int limit, Duration window, Duration maxWait) {
+        return new SlidingWindowRateLimiter(limit, window, maxWait);
+    }
+
+    /**
+     * Shares the permits of the delegate between classes of work: while some are waiting for a permit, the permits go
+     * to the highest class first, and to any work which has waited longer than the max starvation, the oldest first,
+     * so that the lower classes still progress under a sustained load of higher ones. <br><br>
+     *
+     * Only waiting callers can be reordered, so the delegate should have a max wait: a zero one, failing the callers
+     * right away, is rejected.
+     */
+    static RateLimiter prioritized(RateLimiter delegate, Duration maxStarvation) {
+        return new PriorityRateLimiter(delegate, maxStarvation);
+    }
+
+    class RequestNotPermittedException extends Exception {
+
+        public RequestNotPermittedException(String message) {
+            super(message);
+        }
+
+        public RequestNotPermittedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
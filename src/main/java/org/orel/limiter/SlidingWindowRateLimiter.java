@@ -0,0 +1,120 @@
+package org.orel.limiter;
+
+import org.orel.time.Clock;
+import org.orel.time.Sleeper;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Approximates a sliding window from the counts of the current and the previous fixed windows, the previous one being
+ * weighted by how much of it still overlaps the sliding window. Both counts are swapped together in an immutable
+ * snapshot with compare-and-set.
+ */
+public class SlidingWindowRateLimiter implements RateLimiter {
+    private final int limit;
+
+    private final long windowNanos;
+
+    private final long origin;
+
+    private final Duration maxWait;
+
+    private final AtomicReference<Window> window = new AtomicReference<>(new Window(0, 0, 0));
+
+    private final Clock clock;
+
+    private final Sleeper sleeper;
+
+    public SlidingWindowRateLimiter(int limit, Duration window) {
+        this(limit, window, Duration.ZERO);
+    }
+
+    public SlidingWindowRateLimiter(int limit, Duration window, Duration maxWait) {
+        this(limit, window, maxWait, Clock.SYSTEM, Sleeper.THREAD);
+    }
+
+    public SlidingWindowRateLimiter(int limit, Duration window, Duration maxWait, Clock clock, Sleeper sleeper) {
+        Objects.requireNonNull(window, "Window should not be null");
+        this.clock = Objects.requireNonNull(clock, "Clock should not be null");
+        this.sleeper = Objects.requireNonNull(sleeper, "Sleeper should not be null");
+        Objects.requireNonNull(maxWait, "Max wait should not be null");
+        if (limit < 1 || window.isZero() || window.isNegative() || maxWait.isNegative()) {
+            throw new IllegalArgumentException("Limit and window should be positive and max wait not negative");
+        }
+        this.limit = limit;
+        this.windowNanos = window.toNanos();
+        this.origin = clock.nanoTime();
+        this.maxWait = maxWait;
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        return acquireOrGetWait(clock.nanoTime()) == 0;
+    }
+
+    @Override
+    public boolean tryAcquire(Duration timeout) throws InterruptedException {
+        var deadline = clock.nanoTime() + timeout.toNanos();
+        while (true) {
+            var now = clock.nanoTime();
+            var waitNanos = acquireOrGetWait(now);
+            if (waitNanos == 0) {
+                return true;
+            }
+            if (waitNanos > deadline - now) {
+                return false;
+            }
+            sleeper.sleep(waitNanos);
+        }
+    }
+
+    @Override
+    public Duration maxWait() {
+        return maxWait;
+    }
+
+    /**
+     * @return 0 if a permit has been acquired, otherwise the time after which one may be available.
+     */
+    private long acquireOrGetWait(long now) {
+        while (true) {
+            var current = window.get();
+            var elapsed = now - origin;
+            var index = Math.max(current.index(), elapsed / windowNanos);
+            var intoWindow = Math.max(0, elapsed - index * windowNanos);
+            var rolled = current.rollTo(index);
+
+            var overlap = 1.0 - (double) intoWindow / windowNanos;
+            if (rolled.previousCount() * overlap + rolled.currentCount() + 1 > limit) {
+                return Math.max(1, nanosUntilPermit(rolled, intoWindow));
+            }
+            var updated = new Window(index, rolled.previousCount(), rolled.currentCount() + 1);
+            if (window.compareAndSet(current, updated)) {
+                return 0;
+            }
+        }
+    }
+
+    private long nanosUntilPermit(Window window, long intoWindow) {
+        if (window.currentCount() + 1 <= limit) {
+            // the previous window has to slide out enough
+            var overlap = (double) (limit - window.currentCount() - 1) / window.previousCount();
+            return (long) Math.ceil(windowNanos * (1.0 - overlap)) - intoWindow;
+        }
+        // the current window is full: wait for it to become the previous one and slide out enough
+        var overlap = (double) (limit - 1) / window.currentCount();
+        return windowNanos - intoWindow + (long) Math.ceil(windowNanos * (1.0 - overlap));
+    }
+
+    private record Window(long index, int previousCount, int currentCount) {
+
+        Window rollTo(long index) {
+            if (index == this.index) {
+                return this;
+            }
+            return new Window(index, index == this.index + 1 ? currentCount : 0, 0);
+        }
+    }
+}
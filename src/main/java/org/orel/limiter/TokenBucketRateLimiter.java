@@ -0,0 +1,89 @@
+package org.orel.limiter;
+
+import org.orel.time.Clock;
+import org.orel.time.Sleeper;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket expressed as a generic cell rate algorithm: the whole state is the theoretical arrival time of the next
+ * permit, so acquiring is a single compare-and-set. A caller willing to wait reserves a future permit before sleeping,
+ * which keeps waiting callers in order without any queue.
+ */
+public class TokenBucketRateLimiter implements RateLimiter {
+    private final long intervalNanos;
+
+    private final long toleranceNanos;
+
+    private final Duration maxWait;
+
+    private final AtomicLong theoreticalArrivalTime;
+
+    private final Clock clock;
+
+    private final Sleeper sleeper;
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, Duration.ZERO);
+    }
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst, Duration maxWait) {
+        this(permitsPerSecond, burst, maxWait, Clock.SYSTEM, Sleeper.THREAD);
+    }
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst, Duration maxWait, Clock clock, Sleeper sleeper) {
+        Objects.requireNonNull(maxWait, "Max wait should not be null");
+        this.clock = Objects.requireNonNull(clock, "Clock should not be null");
+        this.sleeper = Objects.requireNonNull(sleeper, "Sleeper should not be null");
+        if (!(permitsPerSecond > 0) || burst < 1 || maxWait.isNegative()) {
+            throw new IllegalArgumentException("Rate and burst should be positive and max wait not negative");
+        }
+        this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.toleranceNanos = (burst - 1) * intervalNanos;
+        this.maxWait = maxWait;
+        this.theoreticalArrivalTime = new AtomicLong(clock.nanoTime());
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        return reserve(0) == 0;
+    }
+
+    @Override
+    public boolean tryAcquire(Duration timeout) throws InterruptedException {
+        var waitNanos = reserve(timeout.toNanos());
+        if (waitNanos < 0) {
+            return false;
+        }
+        if (waitNanos > 0) {
+            sleeper.sleep(waitNanos);
+        }
+        return true;
+    }
+
+    @Override
+    public Duration maxWait() {
+        return maxWait;
+    }
+
+    /**
+     * @return how long the caller has to wait for its reserved permit, or -1 if that would exceed the given maximum.
+     */
+    private long reserve(long maxWaitNanos) {
+        while (true) {
+            var now = clock.nanoTime();
+            var arrivalTime = theoreticalArrivalTime.get();
+            var waitNanos = Math.max(0, arrivalTime - toleranceNanos - now);
+            if (waitNanos > maxWaitNanos) {
+                return -1;
+            }
+            var next = (arrivalTime - now > 0 ? arrivalTime : now) + intervalNanos;
+            if (theoreticalArrivalTime.compareAndSet(arrivalTime, next)) {
+                return waitNanos;
+            }
+        }
+    }
+}
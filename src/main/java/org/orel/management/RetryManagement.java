@@ -0,0 +1,69 @@
+package org.orel.management;
+
+import org.orel.metrics.RetryMetrics;
+import org.orel.policy.RetryPolicyRegistry;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Exposes the policies of a {@link RetryPolicyRegistry} as {@link RetryPolicyMXBean}s named
+ * {@code org.orel:type=RetryPolicy,name=<policy name>}, to read their statistics and tune them live, e.g. from JConsole:
+ *
+ * <pre>
+ *      var metrics = new RetryMetrics();
+ *      registry.register( RetryPolicy.builder( "payments" ).maxAttempts( 5 ).listener( metrics ).build() );
+ *      RetryManagement.registerAll( registry, metrics );
+ * </pre>
+ *
+ * The statistics come from the {@link RetryMetrics} given, which the policies should have as a listener.
+ */
+public final class RetryManagement {
+
+    private RetryManagement() {}
+
+    public static List<ObjectName> registerAll(RetryPolicyRegistry registry, RetryMetrics metrics)
+            throws JMException {
+        return registerAll(ManagementFactory.getPlatformMBeanServer(), registry, metrics);
+    }
+
+    /**
+     * Registers the policies currently in the registry, the ones registered later need {@link #register}.
+     *
+     * @param metrics may be null, the statistics are then all zero.
+     */
+    public static List<ObjectName> registerAll(MBeanServer server, RetryPolicyRegistry registry, RetryMetrics metrics)
+            throws JMException {
+        Objects.requireNonNull(registry, "Registry should not be null");
+        var names = new ArrayList<ObjectName>();
+        for (var name : registry.names()) {
+            names.add(register(server, registry, metrics, name));
+        }
+        return names;
+    }
+
+    public static ObjectName register(MBeanServer server, RetryPolicyRegistry registry, RetryMetrics metrics, String name)
+            throws JMException {
+        Objects.requireNonNull(server, "Server should not be null");
+        Objects.requireNonNull(registry, "Registry should not be null");
+        // fails fast if the policy is not registered
+        registry.get(name);
+        var objectName = objectName(name);
+        server.registerMBean(new RetryPolicyControl(name, registry, metrics), objectName);
+        return objectName;
+    }
+
+    public static void unregister(MBeanServer server, String name) throws JMException {
+        server.unregisterMBean(objectName(name));
+    }
+
+    public static ObjectName objectName(String name) throws JMException {
+        Objects.requireNonNull(name, "Name should not be null");
+        return new ObjectName("org.orel:type=RetryPolicy,name=" + ObjectName.quote(name));
+    }
+}
@@ -0,0 +1,115 @@
+package org.orel.management;
+
+import org.orel.metrics.RetryMetrics;
+import org.orel.metrics.RetryStats;
+import org.orel.policy.Backoff;
+import org.orel.policy.RetryPolicyRegistry;
+
+class RetryPolicyControl implements RetryPolicyMXBean {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private static final RetryStats NO_STATS = new RetryStats(null, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+    private final String name;
+
+    private final RetryPolicyRegistry registry;
+
+    private final RetryMetrics metrics;
+
+    RetryPolicyControl(String name, RetryPolicyRegistry registry, RetryMetrics metrics) {
+        this.name = name;
+        this.registry = registry;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getMaxAttempts() {
+        return registry.get(name).maxAttempts();
+    }
+
+    @Override
+    public void setMaxAttempts(long maxAttempts) {
+        registry.update(name, policy -> policy.toBuilder().maxAttempts(maxAttempts).build());
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return registry.get(name).isEnabled();
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        registry.update(name, policy -> policy.toBuilder().enabled(enabled).build());
+    }
+
+    @Override
+    public String getBackoff() {
+        return String.valueOf(registry.get(name).backoff());
+    }
+
+    @Override
+    public void useFixedBackoff(long delayMillis) {
+        var backoff = Backoff.fixed(delayMillis);
+        registry.update(name, policy -> policy.toBuilder().backoff(backoff).build());
+    }
+
+    @Override
+    public void useExponentialBackoff(long initialDelayMillis, double multiplier, long maxDelayMillis) {
+        var backoff = Backoff.exponential(initialDelayMillis, multiplier, maxDelayMillis);
+        registry.update(name, policy -> policy.toBuilder().backoff(backoff).build());
+    }
+
+    @Override
+    public long getAttempts() {
+        return stats().attempts();
+    }
+
+    @Override
+    public long getRetries() {
+        return stats().retries();
+    }
+
+    @Override
+    public long getSuccesses() {
+        return stats().successes();
+    }
+
+    @Override
+    public long getExhaustions() {
+        return stats().exhaustions();
+    }
+
+    @Override
+    public long getAborts() {
+        return stats().aborts();
+    }
+
+    @Override
+    public double getMeanLatencyMillis() {
+        return stats().meanLatencyNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP50LatencyMillis() {
+        return stats().p50LatencyNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99LatencyMillis() {
+        return stats().p99LatencyNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP999LatencyMillis() {
+        return stats().p999LatencyNanos() / NANOS_PER_MILLI;
+    }
+
+    private RetryStats stats() {
+        return metrics == null ? NO_STATS : metrics.stats(name);
+    }
+}
@@ -0,0 +1,43 @@
+package org.orel.management;
+
+/**
+ * Management interface of a policy registered in a {@link org.orel.policy.RetryPolicyRegistry}, see
+ * {@link RetryManagement}. The setters swap the policy in the registry, the running decorators following it pick the
+ * change up from their next call on. Latencies are the ones of whole calls, in milliseconds.
+ */
+public interface RetryPolicyMXBean {
+
+    String getName();
+
+    long getMaxAttempts();
+
+    void setMaxAttempts(long maxAttempts);
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    String getBackoff();
+
+    void useFixedBackoff(long delayMillis);
+
+    void useExponentialBackoff(long initialDelayMillis, double multiplier, long maxDelayMillis);
+
+    long getAttempts();
+
+    long getRetries();
+
+    long getSuccesses();
+
+    long getExhaustions();
+
+    long getAborts();
+
+    double getMeanLatencyMillis();
+
+    double getP50LatencyMillis();
+
+    double getP99LatencyMillis();
+
+    double getP999LatencyMillis();
+}
@@ -0,0 +1,111 @@
+package org.orel.metrics;
+
+import org.orel.retryable.RetryListener;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link RetryListener} aggregating counters and latency histograms per policy name. Counters are striped
+ * {@link LongAdder}s and histograms have a fixed size, so recording an event neither contends across cores nor
+ * allocates once a policy has been seen.
+ *
+ * <pre>
+ *      var metrics = new RetryMetrics();
+ *      var retryConfig = new RetryConfig( delay, 5 ).withName( "payments" ).withListener( metrics );
+ *
+ *      metrics.stats( "payments" ).p99LatencyNanos();
+ * </pre>
+ */
+public class RetryMetrics implements RetryListener {
+    private final ConcurrentHashMap<String, PolicyMetrics> policies = new ConcurrentHashMap<>();
+
+    @Override
+    public void onAttemptStarted(String policy, int attempt) {
+        var metrics = metricsOf(policy);
+        metrics.attempts.increment();
+        if (attempt > 1) {
+            metrics.retries.increment();
+        }
+    }
+
+    @Override
+    public void onAttemptFailed(String policy, int attempt, Exception exception, long durationNanos) {
+        metricsOf(policy).failedAttempts.increment();
+    }
+
+    @Override
+    public void onSuccess(String policy, int attempts, long elapsedNanos) {
+        var metrics = metricsOf(policy);
+        metrics.successes.increment();
+        metrics.record(elapsedNanos);
+    }
+
+    @Override
+    public void onExhausted(String policy, int attempts, Exception lastException, long elapsedNanos) {
+        var metrics = metricsOf(policy);
+        metrics.exhaustions.increment();
+        metrics.record(elapsedNanos);
+    }
+
+    @Override
+    public void onAborted(String policy, int attempts, Exception cause, long elapsedNanos) {
+        var metrics = metricsOf(policy);
+        metrics.aborts.increment();
+        metrics.record(elapsedNanos);
+    }
+
+    public RetryStats stats(String policy) {
+        return metricsOf(policy).snapshot(policy);
+    }
+
+    public Collection<RetryStats> stats() {
+        return policies.entrySet().stream().map(entry -> entry.getValue().snapshot(entry.getKey())).toList();
+    }
+
+    private PolicyMetrics metricsOf(String policy) {
+        // get first: computeIfAbsent may lock the bin even when the policy is already there
+        var metrics = policies.get(policy);
+        return metrics != null ? metrics : policies.computeIfAbsent(policy, ignored -> new PolicyMetrics());
+    }
+
+    private static final class PolicyMetrics {
+        final LongAdder attempts = new LongAdder();
+
+        final LongAdder retries = new LongAdder();
+
+        final LongAdder failedAttempts = new LongAdder();
+
+        final LongAdder successes = new LongAdder();
+
+        final LongAdder exhaustions = new LongAdder();
+
+        final LongAdder aborts = new LongAdder();
+
+        final LongAdder totalLatencyNanos = new LongAdder();
+
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        void record(long elapsedNanos) {
+            totalLatencyNanos.add(elapsedNanos);
+            latency.record(elapsedNanos);
+        }
+
+        RetryStats snapshot(String policy) {
+            var calls = successes.sum() + exhaustions.sum() + aborts.sum();
+            return new RetryStats(
+                    policy,
+                    attempts.sum(),
+                    failedAttempts.sum(),
+                    successes.sum(),
+                    exhaustions.sum(),
+                    aborts.sum(),
+                    retries.sum(),
+                    calls == 0 ? 0 : totalLatencyNanos.sum() / calls,
+                    latency.valueAt(0.5),
+                    latency.valueAt(0.99),
+                    latency.valueAt(0.999));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.orel.metrics;
+
+/**
+ * A point in time snapshot of the metrics of a named retry policy. Latencies are the ones of whole calls, from their
+ * start to the success, the exhaustion of the retries or the abort, be it before the first attempt.
+ *
+ * @param retries the attempts started after the first one of their call.
+ */
+public record RetryStats(
+        String policy,
+        long attempts,
+        long failedAttempts,
+        long successes,
+        long exhaustions,
+        long aborts,
+        long retries,
+        long meanLatencyNanos,
+        long p50LatencyNanos,
+        long p99LatencyNanos,
+        long p999LatencyNanos) {
+
+    /**
+     * @deprecated the retries are estimated from the other counters, which miscounts the calls aborted before their
+     * first attempt and the ones still running.
+     */
+    @Deprecated
+    public RetryStats(
+            String policy,
+            long attempts,
+            long failedAttempts,
+            long successes,
+            long exhaustions,
+            long aborts,
+            long meanLatencyNanos,
+            long p50LatencyNanos,
+            long p99LatencyNanos,
+            long p999LatencyNanos) {
+        this(policy, attempts, failedAttempts, successes, exhaustions, aborts,
+                Math.max(0, attempts - successes - exhaustions - aborts),
+                meanLatencyNanos, p50LatencyNanos, p99LatencyNanos, p999LatencyNanos);
+    }
+}
@@ -1,5 +1,6 @@
 package org.orel.monad;
 
+import org.orel.jfr.RetryEvents;
 import org.orel.operator.FaillibleConsumer;
 import org.orel.operator.FaillibleFunction;
 import org.orel.operator.FaillibleRunnable;
@@ -13,6 +14,7 @@ public class Failure<T> implements Try<T> {
 
     public Failure(Exception exception) {
         this.exception = exception;
+        RetryEvents.tryFailed(exception);
     }
 
     public Exception exception() {
@@ -0,0 +1,253 @@
+package org.orel.monad;
+
+import org.orel.CancellationToken;
+import org.orel.Deadline;
+import org.orel.operator.FaillibleSupplier;
+import org.orel.policy.RetryPolicy;
+import org.orel.retryable.RetryableFunction;
+import org.orel.time.Clock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs independent suppliers concurrently for the parallel variants of {@link Try}.
+ */
+final class Parallel {
+
+    /**
+     * Threads are reused across calls and the pool grows with the number of suppliers actually running, which suits
+     * suppliers that mostly block on I/O.
+     */
+    static final ExecutorService DEFAULT_EXECUTOR = Executors.newCachedThreadPool(daemonThreadFactory("try-parallel-"));
+
+    /**
+     * The bound of {@link #HEDGING_EXECUTOR}, 64 unless set by the {@code org.orel.hedging.maxThreads} system
+     * property.
+     */
+    static final int MAX_HEDGING_THREADS = Math.max(1, Integer.getInteger("org.orel.hedging.maxThreads", 64));
+
+    /**
+     * Runs at most {@link #MAX_HEDGING_THREADS} suppliers at once across all the calls and hands a supplier over only
+     * to an idle thread, rejecting it otherwise: a hedge is extra load, which a saturated pool does not take on.
+     */
+    static final ExecutorService HEDGING_EXECUTOR = hedgingExecutor();
+
+    private Parallel() {}
+
+    /**
+     * Evaluates all the suppliers on the executor and fails as soon as one of them fails, interrupting the others.
+     */
+    static <U> Try<List<U>> zip(List<? extends FaillibleSupplier<? extends U, Exception>> suppliers, Executor executor) {
+        Objects.requireNonNull(suppliers, "Suppliers should not be null");
+        Objects.requireNonNull(executor, "Executor should not be null");
+        suppliers.forEach(supplier -> Objects.requireNonNull(supplier, "Supplier should not be null"));
+
+        var completionService = new ExecutorCompletionService<U>(executor);
+        var futures = new ArrayList<Future<U>>(suppliers.size());
+        try {
+            for (var supplier : suppliers) {
+                futures.add(completionService.submit(supplier::get));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                var completed = completionService.take();
+                var failure = failureOf(completed);
+                if (failure != null) {
+                    return Try.failure(failure);
+                }
+            }
+
+            var values = new ArrayList<U>(futures.size());
+            for (var future : futures) {
+                values.add(future.get());
+            }
+            return Try.success(values);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Try.failure(e);
+        } catch (ExecutionException e) {
+            // cannot happen, every future has already completed successfully
+            throw new IllegalStateException(e);
+        } finally {
+            // also when an Error or a rejection escapes, the futures done being no-ops
+            cancelAll(futures);
+        }
+    }
+
+    /**
+     * Retries each supplier on its own with the policy, so that a failed supplier is retried without running the
+     * others again. A sibling failing for good interrupts the retries, as it does a supplier.
+     *
+     * @param deadline          may be null.
+     * @param cancellationToken may be null.
+     */
+    static <U> List<FaillibleSupplier<U, Exception>> retrying(
+            List<? extends FaillibleSupplier<? extends U, Exception>> suppliers,
+            RetryPolicy policy,
+            Deadline deadline,
+            CancellationToken cancellationToken) {
+        Objects.requireNonNull(suppliers, "Suppliers should not be null");
+        Objects.requireNonNull(policy, "Policy should not be null");
+        var retrying = new ArrayList<FaillibleSupplier<U, Exception>>(suppliers.size());
+        for (var supplier : suppliers) {
+            Objects.requireNonNull(supplier, "Supplier should not be null");
+            var retryableFunction = new RetryableFunction<Void, U>(
+                    ignored -> supplier.get(), policy, deadline, cancellationToken);
+            retrying.add(() -> retryableFunction.apply(null));
+        }
+        return retrying;
+    }
+
+    /**
+     * Launches the suppliers one after the other, the next one once the stagger has elapsed or as soon as the previous
+     * one failed, and returns the first outcome accepted: the first success, or the first outcome of any kind for a
+     * race. The suppliers still running are then interrupted and the ones not launched yet never are. The staggering
+     * is done by the calling thread waiting on the completions, so a call takes no thread beyond the ones running the
+     * suppliers. <br><br>
+     *
+     * A saturated executor only drops the hedges: while a supplier runs, one the executor rejects is launched again
+     * once a running one has failed, and when none runs, the calling thread runs it, so that a call never fails
+     * without trying.
+     */
+    static <U> Try<U> first(
+            List<? extends FaillibleSupplier<? extends U, Exception>> suppliers,
+            Duration stagger,
+            Executor executor,
+            Clock clock,
+            boolean successOnly) {
+        Objects.requireNonNull(suppliers, "Suppliers should not be null");
+        Objects.requireNonNull(stagger, "Stagger should not be null");
+        Objects.requireNonNull(executor, "Executor should not be null");
+        Objects.requireNonNull(clock, "Clock should not be null");
+        suppliers.forEach(supplier -> Objects.requireNonNull(supplier, "Supplier should not be null"));
+        if (suppliers.isEmpty()) {
+            throw new IllegalArgumentException("Suppliers should not be empty");
+        }
+        if (stagger.isNegative()) {
+            throw new IllegalArgumentException("Stagger should not be negative");
+        }
+
+        var completionService = new ExecutorCompletionService<U>(executor);
+        var futures = new ArrayList<Future<U>>(suppliers.size());
+        var failures = new ArrayList<Exception>();
+        var staggerNanos = stagger.toNanos();
+        var launched = 0;
+        var running = 0;
+        var saturated = false;
+        var nextLaunch = clock.nanoTime();
+        try {
+            while (launched < suppliers.size() || running > 0) {
+                Future<U> completed;
+                if (launched < suppliers.size() && !saturated) {
+                    var wait = nextLaunch - clock.nanoTime();
+                    completed = wait > 0 ? completionService.poll(wait, TimeUnit.NANOSECONDS) : null;
+                    if (completed == null) {
+                        var supplier = suppliers.get(launched);
+                        try {
+                            futures.add(completionService.submit(supplier::get));
+                            launched++;
+                            running++;
+                            nextLaunch = clock.nanoTime() + staggerNanos;
+                            continue;
+                        } catch (RejectedExecutionException e) {
+                            if (running > 0) {
+                                // the hedge waits for a running supplier to fail
+                                saturated = true;
+                                continue;
+                            }
+                        }
+                        launched++;
+                        var outcome = Try.<U>run(supplier);
+                        if (outcome.isSuccess() || !successOnly) {
+                            return outcome;
+                        }
+                        failures.add(((Failure<U>) outcome).exception());
+                        continue;
+                    }
+                } else {
+                    completed = completionService.take();
+                }
+
+                running--;
+                var failure = failureOf(completed);
+                if (failure == null) {
+                    return Try.success(completed.get());
+                }
+                if (!successOnly) {
+                    return Try.failure(failure);
+                }
+                failures.add(failure);
+                // there is no point in waiting for the stagger to hand over to the next supplier
+                saturated = false;
+                nextLaunch = clock.nanoTime();
+            }
+            return Try.failure(new Try.AllFailedException(failures));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Try.failure(e);
+        } catch (ExecutionException e) {
+            // cannot happen, the future has already completed successfully
+            throw new IllegalStateException(e);
+        } finally {
+            cancelAll(futures);
+        }
+    }
+
+    static void cancelAll(List<? extends Future<?>> futures) {
+        futures.forEach(future -> future.cancel(true));
+    }
+
+    /**
+     * @return the exception the completed future failed with, or null if it succeeded.
+     */
+    static Exception failureOf(Future<?> completed) throws InterruptedException {
+        try {
+            completed.get();
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                return cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static ExecutorService hedgingExecutor() {
+        var executor = new ThreadPoolExecutor(
+                MAX_HEDGING_THREADS,
+                MAX_HEDGING_THREADS,
+                60,
+                TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                daemonThreadFactory("try-hedging-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ThreadFactory daemonThreadFactory(String prefix) {
+        var counter = new AtomicInteger();
+        return runnable -> {
+            var thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,17 +1,33 @@
 package org.orel.monad;
 
+import org.orel.CancellationToken;
+import org.orel.Deadline;
 import org.orel.RetryConfig;
+import org.orel.batch.BatchLoader;
+import org.orel.batch.BatchSpec;
+import org.orel.cache.CacheSpec;
+import org.orel.cache.MemoizedFunction;
+import org.orel.operator.ContextualFunction;
+import org.orel.operator.ContextualSupplier;
 import org.orel.operator.FaillibleBiFunction;
 import org.orel.operator.FaillibleConsumer;
 import org.orel.operator.FaillibleFunction;
 import org.orel.operator.FaillibleRunnable;
 import org.orel.operator.FaillibleSupplier;
+import org.orel.operator.FaillibleTriFunction;
+import org.orel.operator.RetryContext;
+import org.orel.policy.RetryPolicy;
 import org.orel.retryable.RetryableConsumer;
 import org.orel.retryable.RetryableFunction;
 import org.orel.retryable.RetryableRunnable;
 import org.orel.retryable.RetryableSupplier;
+import org.orel.time.Clock;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -83,6 +99,86 @@ public interface Try<T> {
         return run(retryableRunnable);
     }
 
+    /**
+     * Builds a new {@link RetryableFunction} around the shared policy. To avoid even that allocation on a hot path, keep
+     * the decorator returned by {@link RetryPolicy#decorateFunction(FaillibleFunction)} and pass it to
+     * {@link #of(FaillibleFunction)}.
+     */
+    static <U, V> Function<U, Try<V>> of(
+            FaillibleFunction<? super U, ? extends V, Exception> function, RetryPolicy policy) {
+        var retryableFunction = new RetryableFunction<>(function, policy);
+        return of(retryableFunction);
+    }
+
+    static <U> Try<U> run(FaillibleSupplier<? extends U, Exception> supplier, RetryPolicy policy) {
+        var retryableSupplier = new RetryableSupplier<>(supplier, policy);
+        return run(retryableSupplier);
+    }
+
+    static Try<Void> run(FaillibleRunnable<Exception> runnable, RetryPolicy policy) {
+        var retryableRunnable = new RetryableRunnable(runnable, policy);
+        return run(retryableRunnable);
+    }
+
+    /**
+     * Gives the function a {@link RetryContext}, so that it can degrade on later attempts, e.g. ask for less data once
+     * little time is left before the deadline of the configuration.
+     */
+    static <U, V> Function<U, Try<V>> of(
+            ContextualFunction<? super U, ? extends V, Exception> function, RetryConfig retryConfig) {
+        var retryableFunction = new RetryableFunction<>(function, retryConfig);
+        return of(retryableFunction);
+    }
+
+    static <U> Try<U> run(ContextualSupplier<? extends U, Exception> supplier, RetryConfig retryConfig) {
+        var retryableSupplier = new RetryableSupplier<U>(supplier::get, retryConfig);
+        return run(retryableSupplier);
+    }
+
+    static <U, V> Function<U, Try<V>> of(
+            ContextualFunction<? super U, ? extends V, Exception> function, RetryPolicy policy) {
+        var retryableFunction = new RetryableFunction<>(function, policy);
+        return of(retryableFunction);
+    }
+
+    static <U> Try<U> run(ContextualSupplier<? extends U, Exception> supplier, RetryPolicy policy) {
+        var retryableSupplier = new RetryableSupplier<U>(supplier::get, policy);
+        return run(retryableSupplier);
+    }
+
+    /**
+     * Caches the results of an idempotent function by input. Failures are only cached when the {@link CacheSpec} sets a
+     * negative TTL.
+     */
+    static <U, V> MemoizedFunction<U, V> memoize(
+            FaillibleFunction<? super U, ? extends V, Exception> function, CacheSpec cacheSpec) {
+        Objects.requireNonNull(function, "Function should not be null");
+        return new MemoizedFunction<>(function, cacheSpec);
+    }
+
+    static <U, V> MemoizedFunction<U, V> memoize(
+            FaillibleFunction<? super U, ? extends V, Exception> function, RetryConfig retryConfig, CacheSpec cacheSpec) {
+        var retryableFunction = new RetryableFunction<>(function, retryConfig);
+        return memoize(retryableFunction, cacheSpec);
+    }
+
+    /**
+     * Coalesces single key lookups into calls of the batch function, as described by the {@link BatchSpec}.
+     */
+    static <K, V> BatchLoader<K, V> batch(
+            FaillibleFunction<? super List<K>, ? extends Map<K, V>, Exception> batchFunction, BatchSpec batchSpec) {
+        Objects.requireNonNull(batchFunction, "Batch function should not be null");
+        return new BatchLoader<>(batchFunction, batchSpec);
+    }
+
+    static <K, V> BatchLoader<K, V> batch(
+            FaillibleFunction<? super List<K>, ? extends Map<K, V>, Exception> batchFunction,
+            RetryConfig retryConfig,
+            BatchSpec batchSpec) {
+        var retryableFunction = new RetryableFunction<>(batchFunction, retryConfig);
+        return batch(retryableFunction, batchSpec);
+    }
+
     static <U> Try<U> failure(Exception exception) {
         return new Failure<>(exception);
     }
@@ -124,6 +220,39 @@ public interface Try<T> {
         return thenAccept(retryableConsumer);
     }
 
+    default <R> Try<R> thenCompose(
+            FaillibleFunction<? super T, Try<? extends R>, Exception> function, RetryPolicy policy) {
+        var retryableFunction = new RetryableFunction<>(function, policy);
+        return thenCompose(retryableFunction);
+    }
+
+    default <R> Try<R> thenApply(FaillibleFunction<? super T, ? extends R, Exception> function, RetryPolicy policy) {
+        var retryableFunction = new RetryableFunction<>(function, policy);
+        return thenApply(retryableFunction);
+    }
+
+    default Try<Void> thenRun(FaillibleRunnable<Exception> runnable, RetryPolicy policy) {
+        var retryableRunnable = new RetryableRunnable(runnable, policy);
+        return thenRun(retryableRunnable);
+    }
+
+    default Try<Void> thenAccept(FaillibleConsumer<? super T, Exception> consumer, RetryPolicy policy) {
+        var retryableConsumer = new RetryableConsumer<>(consumer, policy);
+        return thenAccept(retryableConsumer);
+    }
+
+    default <R> Try<R> thenApply(
+            ContextualFunction<? super T, ? extends R, Exception> function, RetryConfig retryConfig) {
+        var retryableFunction = new RetryableFunction<>(function, retryConfig);
+        return thenApply(retryableFunction);
+    }
+
+    default <R> Try<R> thenApply(
+            ContextualFunction<? super T, ? extends R, Exception> function, RetryPolicy policy) {
+        var retryableFunction = new RetryableFunction<>(function, policy);
+        return thenApply(retryableFunction);
+    }
+
     T get();
 
     T getOrElse(T defaultValue);
@@ -137,5 +266,223 @@ public interface Try<T> {
         return try1.thenCompose(boundValue1 -> try2.thenApply(boundValue2 -> function.apply(boundValue1, boundValue2)));
     }
 
+    /**
+     * Evaluates both suppliers concurrently and combines their values, so the latency is the one of the slowest
+     * supplier rather than the sum of both. As soon as one supplier fails the other one is interrupted and its failure is
+     * returned. <br><br>
+     *
+     * A supplier can be retried on its own by wrapping it in a {@link RetryableSupplier}, or both with the overloads
+     * taking a {@link RetryConfig} or a {@link RetryPolicy}.
+     */
+    static <U, V, R> Try<R> combine(
+            FaillibleSupplier<? extends U, Exception> supplier1,
+            FaillibleSupplier<? extends V, Exception> supplier2,
+            FaillibleBiFunction<? super U, ? super V, ? extends R, Exception> function) {
+        return combine(supplier1, supplier2, function, Parallel.DEFAULT_EXECUTOR);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <U, V, R> Try<R> combine(
+            FaillibleSupplier<? extends U, Exception> supplier1,
+            FaillibleSupplier<? extends V, Exception> supplier2,
+            FaillibleBiFunction<? super U, ? super V, ? extends R, Exception> function,
+            Executor executor) {
+        Objects.requireNonNull(function, "Function should not be null");
+        return Parallel.<Object>zip(List.of(supplier1, supplier2), executor)
+                .thenApply(values -> function.apply((U) values.get(0), (V) values.get(1)));
+    }
+
+    /**
+     * Retries each supplier on its own, so that a failed one is retried without evaluating the other again. The
+     * deadline and the cancellation token of the configuration bound every supplier.
+     */
+    static <U, V, R> Try<R> combine(
+            FaillibleSupplier<? extends U, Exception> supplier1,
+            FaillibleSupplier<? extends V, Exception> supplier2,
+            FaillibleBiFunction<? super U, ? super V, ? extends R, Exception> function,
+            RetryConfig retryConfig) {
+        return combine(supplier1, supplier2, function, retryConfig.toPolicy(), retryConfig.deadline(),
+                retryConfig.cancellationToken());
+    }
+
+    static <U, V, R> Try<R> combine(
+            FaillibleSupplier<? extends U, Exception> supplier1,
+            FaillibleSupplier<? extends V, Exception> supplier2,
+            FaillibleBiFunction<? super U, ? super V, ? extends R, Exception> function,
+            RetryPolicy policy) {
+        return combine(supplier1, supplier2, function, policy, null, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <U, V, R> Try<R> combine(
+            FaillibleSupplier<? extends U, Exception> supplier1,
+            FaillibleSupplier<? extends V, Exception> supplier2,
+            FaillibleBiFunction<? super U, ? super V, ? extends R, Exception> function,
+            RetryPolicy policy,
+            Deadline deadline,
+            CancellationToken cancellationToken) {
+        Objects.requireNonNull(function, "Function should not be null");
+        var suppliers = Parallel.<Object>retrying(List.of(supplier1, supplier2), policy, deadline, cancellationToken);
+        return Parallel.zip(suppliers, Parallel.DEFAULT_EXECUTOR)
+                .thenApply(values -> function.apply((U) values.get(0), (V) values.get(1)));
+    }
+
+    /**
+     * Evaluates the three suppliers concurrently and combines their values, see
+     * {@link #combine(FaillibleSupplier, FaillibleSupplier, FaillibleBiFunction)}. Beyond three, {@link #zip(List)}
+     * collects the values of any number of suppliers.
+     */
+    static <U, V, W, R> Try<R> combine(
+            FaillibleSupplier<? extends U, Exception> supplier1,
+            FaillibleSupplier<? extends V, Exception> supplier2,
+            FaillibleSupplier<? extends W, Exception> supplier3,
+            FaillibleTriFunction<? super U, ? super V, ? super W, ? extends R, Exception> function) {
+        return combine(supplier1, supplier2, supplier3, function, Parallel.DEFAULT_EXECUTOR);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <U, V, W, R> Try<R> combine(
+            FaillibleSupplier<? extends U, Exception> supplier1,
+            FaillibleSupplier<? extends V, Exception> supplier2,
+            FaillibleSupplier<? extends W, Exception> supplier3,
+            FaillibleTriFunction<? super U, ? super V, ? super W, ? extends R, Exception> function,
+            Executor executor) {
+        Objects.requireNonNull(function, "Function should not be null");
+        return Parallel.<Object>zip(List.of(supplier1, supplier2, supplier3), executor)
+                .thenApply(values -> function.apply((U) values.get(0), (V) values.get(1), (W) values.get(2)));
+    }
+
+    static <U, V, W, R> Try<R> combine(
+            FaillibleSupplier<? extends U, Exception> supplier1,
+            FaillibleSupplier<? extends V, Exception> supplier2,
+            FaillibleSupplier<? extends W, Exception> supplier3,
+            FaillibleTriFunction<? super U, ? super V, ? super W, ? extends R, Exception> function,
+            RetryConfig retryConfig) {
+        return combine(supplier1, supplier2, supplier3, function, retryConfig.toPolicy(), retryConfig.deadline(),
+                retryConfig.cancellationToken());
+    }
+
+    static <U, V, W, R> Try<R> combine(
+            FaillibleSupplier<? extends U, Exception> supplier1,
+            FaillibleSupplier<? extends V, Exception> supplier2,
+            FaillibleSupplier<? extends W, Exception> supplier3,
+            FaillibleTriFunction<? super U, ? super V, ? super W, ? extends R, Exception> function,
+            RetryPolicy policy) {
+        return combine(supplier1, supplier2, supplier3, function, policy, null, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <U, V, W, R> Try<R> combine(
+            FaillibleSupplier<? extends U, Exception> supplier1,
+            FaillibleSupplier<? extends V, Exception> supplier2,
+            FaillibleSupplier<? extends W, Exception> supplier3,
+            FaillibleTriFunction<? super U, ? super V, ? super W, ? extends R, Exception> function,
+            RetryPolicy policy,
+            Deadline deadline,
+            CancellationToken cancellationToken) {
+        Objects.requireNonNull(function, "Function should not be null");
+        var suppliers = Parallel.<Object>retrying(
+                List.of(supplier1, supplier2, supplier3), policy, deadline, cancellationToken);
+        return Parallel.zip(suppliers, Parallel.DEFAULT_EXECUTOR)
+                .thenApply(values -> function.apply((U) values.get(0), (V) values.get(1), (W) values.get(2)));
+    }
+
+    /**
+     * Evaluates all the suppliers concurrently and collects their values in the same order. As soon as one supplier
+     * fails the others are interrupted and its failure is returned.
+     */
+    static <U> Try<List<U>> zip(List<? extends FaillibleSupplier<? extends U, Exception>> suppliers) {
+        return zip(suppliers, Parallel.DEFAULT_EXECUTOR);
+    }
+
+    static <U> Try<List<U>> zip(List<? extends FaillibleSupplier<? extends U, Exception>> suppliers, Executor executor) {
+        return Parallel.zip(suppliers, executor);
+    }
+
+    /**
+     * Retries each supplier on its own, so that a failed one is retried without evaluating the others again.
+     */
+    static <U> Try<List<U>> zip(
+            List<? extends FaillibleSupplier<? extends U, Exception>> suppliers, RetryConfig retryConfig) {
+        var retrying = Parallel.<U>retrying(
+                suppliers, retryConfig.toPolicy(), retryConfig.deadline(), retryConfig.cancellationToken());
+        return zip(retrying, Parallel.DEFAULT_EXECUTOR);
+    }
+
+    static <U> Try<List<U>> zip(
+            List<? extends FaillibleSupplier<? extends U, Exception>> suppliers, RetryPolicy policy) {
+        return zip(Parallel.<U>retrying(suppliers, policy, null, null), Parallel.DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Returns the value of the first supplier to succeed, e.g. the fastest of several replicas, and interrupts the
+     * others. Fails with an {@link AllFailedException} when none succeeds. <br><br>
+     *
+     * The suppliers run on a shared pool of at most 64 threads, or as many as the {@code org.orel.hedging.maxThreads}
+     * system property sets, which rejects them when all are busy rather than queueing them. A saturated pool only
+     * drops the hedges, so that hedging does not pile up work on it: a supplier rejected while none is running runs on
+     * the calling thread, and one rejected while another is running is launched only once the running ones failed.
+     * With the overloads taking an executor, sizing it is up to the caller: one queueing the suppliers delays the
+     * hedges rather than dropping them.
+     */
+    static <U> Try<U> firstSuccess(List<? extends FaillibleSupplier<? extends U, Exception>> suppliers) {
+        return firstSuccess(suppliers, Duration.ZERO, Parallel.HEDGING_EXECUTOR);
+    }
+
+    /**
+     * Launches the suppliers in order, each one after the stagger unless a success came first, or right away when the
+     * previous one failed. A small stagger hedges a slow primary without doubling the load on the replicas.
+     */
+    static <U> Try<U> firstSuccess(
+            List<? extends FaillibleSupplier<? extends U, Exception>> suppliers, Duration stagger) {
+        return firstSuccess(suppliers, stagger, Parallel.HEDGING_EXECUTOR);
+    }
+
+    static <U> Try<U> firstSuccess(
+            List<? extends FaillibleSupplier<? extends U, Exception>> suppliers, Duration stagger, Executor executor) {
+        return firstSuccess(suppliers, stagger, executor, Clock.SYSTEM);
+    }
+
+    /**
+     * @param clock the clock the stagger is measured on.
+     */
+    static <U> Try<U> firstSuccess(
+            List<? extends FaillibleSupplier<? extends U, Exception>> suppliers,
+            Duration stagger,
+            Executor executor,
+            Clock clock) {
+        return Parallel.first(suppliers, stagger, executor, clock, true);
+    }
+
+    /**
+     * Returns the outcome of the first supplier to complete, be it a failure, and interrupts the others.
+     */
+    static <U> Try<U> race(List<? extends FaillibleSupplier<? extends U, Exception>> suppliers) {
+        return race(suppliers, Parallel.HEDGING_EXECUTOR);
+    }
+
+    static <U> Try<U> race(List<? extends FaillibleSupplier<? extends U, Exception>> suppliers, Executor executor) {
+        return Parallel.first(suppliers, Duration.ZERO, executor, Clock.SYSTEM, false);
+    }
+
     boolean isSuccess();
+
+    /**
+     * None of the competing suppliers succeeded: the failures are in the order they happened, the first one being the
+     * cause and the others suppressed.
+     */
+    class AllFailedException extends Exception {
+        private final List<Exception> failures;
+
+        public AllFailedException(List<Exception> failures) {
+            super("All " + failures.size() + " suppliers failed, first failure: " + failures.get(0).getMessage(),
+                    failures.get(0));
+            this.failures = List.copyOf(failures);
+            failures.stream().skip(1).forEach(this::addSuppressed);
+        }
+
+        public List<Exception> failures() {
+            return failures;
+        }
+    }
 }
@@ -0,0 +1,10 @@
+package org.orel.operator;
+
+/**
+ * A {@link FaillibleFunction} told where its retries stand.
+ */
+@FunctionalInterface
+public interface ContextualFunction<T, R, E extends Exception> {
+
+    R apply(T t, RetryContext context) throws E;
+}
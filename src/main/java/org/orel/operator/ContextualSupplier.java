@@ -0,0 +1,10 @@
+package org.orel.operator;
+
+/**
+ * A {@link FaillibleSupplier} told where its retries stand.
+ */
+@FunctionalInterface
+public interface ContextualSupplier<T, E extends Exception> {
+
+    T get(RetryContext context) throws E;
+}
@@ -0,0 +1,5 @@
+package org.orel.operator;
+
+public interface FaillibleTriFunction<U, V, W, R, E extends Exception> {
+    R apply(U arg1, V arg2, W arg3) throws E;
+}
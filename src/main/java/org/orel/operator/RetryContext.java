@@ -0,0 +1,40 @@
+package org.orel.operator;
+
+/**
+ * Where a retried operation stands, so that it can degrade on later attempts: ask for a smaller page, lower its own
+ * timeout to the time left, read from a cheaper replica or fall back to a cached value. <br><br>
+ *
+ * The retry loop updates the context in place before every attempt and reuses it for the next calls on the same
+ * thread, so an operation should read it during the attempt and not keep it.
+ */
+public interface RetryContext {
+
+    /**
+     * @return the number of the current attempt, starting at 1.
+     */
+    int attempt();
+
+    /**
+     * @return the number of attempts left after the current one, {@link Long#MAX_VALUE} when the retries are unbounded.
+     */
+    long remainingAttempts();
+
+    /**
+     * @return the time since the first attempt started.
+     */
+    long elapsedNanos();
+
+    /**
+     * @return the time left before the deadline, {@link Long#MAX_VALUE} without one.
+     */
+    long remainingNanos();
+
+    /**
+     * @return the failure of the previous attempt, null on the first one.
+     */
+    Exception lastException();
+
+    default boolean isRetry() {
+        return attempt() > 1;
+    }
+}
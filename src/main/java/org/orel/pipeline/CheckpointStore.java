@@ -0,0 +1,46 @@
+package org.orel.pipeline;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Keeps the results of the completed stages of a {@link Pipeline} run, so that a retry resumes from the stage that
+ * failed. A run is identified by a key chosen by the caller, e.g. the id of the order it processes, and its stages by
+ * their names.
+ */
+public interface CheckpointStore {
+
+    /**
+     * @return the result of the stage, or null if it has not completed yet.
+     */
+    Checkpoint load(String runId, String stage) throws Exception;
+
+    void save(String runId, String stage, Object result) throws Exception;
+
+    /**
+     * Drops the checkpoints of a run, once it has completed.
+     */
+    void clear(String runId) throws Exception;
+
+    /**
+     * Keeps the checkpoints in the heap: a run resumes within the process only.
+     */
+    static CheckpointStore inMemory() {
+        return new InMemoryCheckpointStore();
+    }
+
+    /**
+     * Serializes the checkpoints to files in the directory, one sub-directory per run, so that a run also resumes
+     * after a restart. The results of the stages should then be {@link java.io.Serializable} and the run ids safe to
+     * use as file names.
+     */
+    static CheckpointStore directory(Path directory) {
+        Objects.requireNonNull(directory, "Directory should not be null");
+        return new FileCheckpointStore(directory);
+    }
+
+    /**
+     * The result of a completed stage, which may be null.
+     */
+    record Checkpoint(Object result) {}
+}
@@ -0,0 +1,74 @@
+package org.orel.pipeline;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.regex.Pattern;
+
+class FileCheckpointStore implements CheckpointStore {
+    private static final Pattern SAFE_NAME = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]*");
+
+    private final Path directory;
+
+    FileCheckpointStore(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public Checkpoint load(String runId, String stage) throws IOException, ClassNotFoundException {
+        var file = fileOf(runId, stage);
+        try (var input = new ObjectInputStream(Files.newInputStream(file))) {
+            return new Checkpoint(input.readObject());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes a temporary file first and moves it in place, so that a crash never leaves a partial checkpoint behind.
+     */
+    @Override
+    public void save(String runId, String stage, Object result) throws IOException {
+        var file = fileOf(runId, stage);
+        Files.createDirectories(file.getParent());
+        var temporary = Files.createTempFile(file.getParent(), stage, ".tmp");
+        try {
+            try (var output = new ObjectOutputStream(Files.newOutputStream(temporary))) {
+                output.writeObject(result);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    @Override
+    public void clear(String runId) throws IOException {
+        var run = directory.resolve(safe(runId));
+        if (!Files.exists(run)) {
+            return;
+        }
+        try (var files = Files.walk(run)) {
+            for (var file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private Path fileOf(String runId, String stage) {
+        return directory.resolve(safe(runId)).resolve(safe(stage) + ".checkpoint");
+    }
+
+    private static String safe(String name) {
+        if (!SAFE_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException(
+                    "Name should only contain letters, digits, '.', '_' and '-' and not start with '.': " + name);
+        }
+        return name;
+    }
+}
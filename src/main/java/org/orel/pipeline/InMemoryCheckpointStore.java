@@ -0,0 +1,24 @@
+package org.orel.pipeline;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+class InMemoryCheckpointStore implements CheckpointStore {
+    private final ConcurrentHashMap<String, Map<String, Checkpoint>> runs = new ConcurrentHashMap<>();
+
+    @Override
+    public Checkpoint load(String runId, String stage) {
+        var checkpoints = runs.get(runId);
+        return checkpoints == null ? null : checkpoints.get(stage);
+    }
+
+    @Override
+    public void save(String runId, String stage, Object result) {
+        runs.computeIfAbsent(runId, ignored -> new ConcurrentHashMap<>()).put(stage, new Checkpoint(result));
+    }
+
+    @Override
+    public void clear(String runId) {
+        runs.remove(runId);
+    }
+}
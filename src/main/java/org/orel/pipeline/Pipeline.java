@@ -0,0 +1,206 @@
+package org.orel.pipeline;
+
+import org.orel.CancellationToken;
+import org.orel.Deadline;
+import org.orel.RetryConfig;
+import org.orel.monad.Try;
+import org.orel.operator.FaillibleFunction;
+import org.orel.policy.RetryPolicy;
+import org.orel.retryable.RetryableFunction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A chain of named stages retried as a unit: the result of every completed stage is checkpointed, so a retry resumes
+ * from the stage that failed instead of repeating the expensive stages that already succeeded. <br><br>
+ *
+ * Example:
+ *
+ * <pre>
+ *      Pipeline<Order, Receipt> checkout = Pipeline.<Order>start( policy )
+ *          .thenApply( "reserve", inventory::reserve )
+ *          .thenApplyOnce( "charge", payments::charge )
+ *          .thenApply( "ship", shipping::ship )
+ *          .withCheckpointStore( CheckpointStore.directory( Path.of( "checkpoints" ) ) );
+ *
+ *      Try<Receipt> receipt = checkout.run( order.id(), order );
+ * </pre>
+ *
+ * A stage added with {@link #thenApply(String, FaillibleFunction)} is idempotent: when it fails, the pipeline is
+ * retried from it. One added with {@link #thenApplyOnce(String, FaillibleFunction)} is not safe to run twice, e.g. it
+ * may have taken effect before failing: when it fails, or its checkpoint cannot be saved, the pipeline fails right
+ * away with that failure. A stage that completed is never run again by the same run, whichever its kind, but one
+ * running when the process stopped is run again when a run resumes from a
+ * {@link CheckpointStore#directory(java.nio.file.Path)}. A checkpoint failing to load is retried like a stage, since
+ * no stage runs before the checkpoints are loaded. <br><br>
+ *
+ * The checkpoints of a run are cleared once it succeeds, and kept when it fails, so that running it again with the
+ * same id resumes it. A pipeline is immutable and can be shared: adding a stage returns a new one.
+ *
+ * @param <I> the type of the input of the pipeline.
+ * @param <O> the type of the result of its last stage.
+ */
+public final class Pipeline<I, O> {
+    private final RetryPolicy policy;
+
+    private final Deadline deadline;
+
+    private final CancellationToken cancellationToken;
+
+    private final List<Stage> stages;
+
+    private final CheckpointStore checkpointStore;
+
+    private Pipeline(
+            RetryPolicy policy,
+            Deadline deadline,
+            CancellationToken cancellationToken,
+            List<Stage> stages,
+            CheckpointStore checkpointStore) {
+        this.policy = policy;
+        this.deadline = deadline;
+        this.cancellationToken = cancellationToken;
+        this.stages = stages;
+        this.checkpointStore = checkpointStore;
+    }
+
+    public static <I> Pipeline<I, I> start(RetryPolicy policy) {
+        return start(policy, null, null);
+    }
+
+    /**
+     * The deadline and the cancellation token of the configuration bound the pipeline as a whole.
+     */
+    public static <I> Pipeline<I, I> start(RetryConfig retryConfig) {
+        return start(retryConfig.toPolicy(), retryConfig.deadline(), retryConfig.cancellationToken());
+    }
+
+    private static <I> Pipeline<I, I> start(
+            RetryPolicy policy, Deadline deadline, CancellationToken cancellationToken) {
+        Objects.requireNonNull(policy, "Policy should not be null");
+        var pipelinePolicy = policy.toBuilder().abortOn(StageNotRepeatableException.class).build();
+        return new Pipeline<>(pipelinePolicy, deadline, cancellationToken, List.of(), null);
+    }
+
+    public <R> Pipeline<I, R> thenApply(String stage, FaillibleFunction<? super O, ? extends R, Exception> function) {
+        return then(stage, function, true);
+    }
+
+    public <R> Pipeline<I, R> thenApplyOnce(
+            String stage, FaillibleFunction<? super O, ? extends R, Exception> function) {
+        return then(stage, function, false);
+    }
+
+    /**
+     * Keeps the checkpoints of the runs with an id in the given store, see {@link #run(String, Object)}.
+     */
+    public Pipeline<I, O> withCheckpointStore(CheckpointStore checkpointStore) {
+        Objects.requireNonNull(checkpointStore, "Checkpoint store should not be null");
+        return new Pipeline<>(policy, deadline, cancellationToken, stages, checkpointStore);
+    }
+
+    /**
+     * Runs the pipeline under a new id, so that it cannot be resumed by a later run: its checkpoints are kept in memory
+     * whatever the checkpoint store, and dropped with the run even when it fails.
+     */
+    public Try<O> run(I input) {
+        return run(new InMemoryCheckpointStore(), UUID.randomUUID().toString(), input);
+    }
+
+    /**
+     * Runs the pipeline, resuming from the checkpoints left by a failed run with the same id.
+     */
+    public Try<O> run(String runId, I input) {
+        Objects.requireNonNull(runId, "Run id should not be null");
+        if (checkpointStore == null) {
+            throw new IllegalStateException("A run can only be resumed from a checkpoint store");
+        }
+        return run(checkpointStore, runId, input);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Try<O> run(CheckpointStore store, String runId, I input) {
+        var retryableFunction = new RetryableFunction<I, Object>(
+                value -> resume(store, runId, value), policy, deadline, cancellationToken);
+        Object result;
+        try {
+            result = retryableFunction.apply(input);
+        } catch (StageNotRepeatableException e) {
+            return Try.failure((Exception) e.getCause());
+        } catch (Exception e) {
+            return Try.failure(e);
+        }
+        try {
+            store.clear(runId);
+        } catch (Exception e) {
+            // the run is done all the same, its checkpoints are only left behind
+        }
+        return Try.success((O) result);
+    }
+
+    /**
+     * Looks for the last completed stage from the end, so that a run resuming late in the pipeline does not load the
+     * results of all the stages before.
+     */
+    private Object resume(CheckpointStore store, String runId, Object input) throws Exception {
+        var next = 0;
+        var value = input;
+        for (int i = stages.size() - 1; i >= 0; i--) {
+            var checkpoint = store.load(runId, stages.get(i).name());
+            if (checkpoint != null) {
+                next = i + 1;
+                value = checkpoint.result();
+                break;
+            }
+        }
+
+        for (int i = next; i < stages.size(); i++) {
+            var stage = stages.get(i);
+            try {
+                value = stage.function().apply(value);
+            } catch (Exception e) {
+                if (stage.repeatable()) {
+                    throw e;
+                }
+                throw new StageNotRepeatableException(e);
+            }
+            try {
+                store.save(runId, stage.name(), value);
+            } catch (Exception e) {
+                // without its checkpoint, a retry would run the stage that just took effect once more
+                if (stage.repeatable()) {
+                    throw e;
+                }
+                throw new StageNotRepeatableException(e);
+            }
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> Pipeline<I, R> then(
+            String stage, FaillibleFunction<? super O, ? extends R, Exception> function, boolean repeatable) {
+        Objects.requireNonNull(stage, "Stage name should not be null");
+        Objects.requireNonNull(function, "Function should not be null");
+        for (var existing : stages) {
+            if (existing.name().equals(stage)) {
+                throw new IllegalArgumentException("Stage " + stage + " already exists");
+            }
+        }
+        var newStages = new ArrayList<>(stages);
+        newStages.add(new Stage(stage, (FaillibleFunction<Object, Object, Exception>) function, repeatable));
+        return new Pipeline<>(policy, deadline, cancellationToken, List.copyOf(newStages), checkpointStore);
+    }
+
+    private record Stage(String name, FaillibleFunction<Object, Object, Exception> function, boolean repeatable) {}
+
+    private static class StageNotRepeatableException extends Exception {
+
+        StageNotRepeatableException(Exception cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package org.orel.policy;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Learns which delay works best for a dependency from the outcomes of the retries made with the policy: some recover
+ * within milliseconds, others need seconds and every retry made before that is wasted. <br><br>
+ *
+ * The delays are candidates spaced geometrically between the minimum and the maximum, for each of which it keeps how
+ * many retries were made after waiting about that long and how many succeeded. Waiting longer never makes a recovery
+ * less likely, so the success rates are estimated as a non-decreasing function of the delay, pooling the counts of
+ * neighbouring candidates that would otherwise contradict this: the estimate is the distribution of the delay needed
+ * to succeed. It then picks the candidate with the highest expected success per unit of time, i.e. its estimated
+ * success rate divided by the time it costs. A small share of the picks explores the other candidates, so that
+ * the estimates keep up when the dependency changes, and the counts are halved every half-life of observations, so
+ * old outcomes fade out and the memory stays fixed. <br><br>
+ *
+ * An instance learns for one policy, from all its calls and attempts alike. It is lock-free: the counts are atomics
+ * and a concurrent halving only loses a few increments. The estimates are recomputed when an outcome is recorded, by
+ * one thread at a time picking up the outcomes recorded meanwhile, so picking a delay only reads the best candidate.
+ *
+ * <pre>
+ *      RetryPolicy policy = RetryPolicy.builder( "search" )
+ *          .maxAttempts( 4 )
+ *          .backoff( new AdaptiveBackoff( 1, 5_000 ) )
+ *          .build();
+ * </pre>
+ */
+public class AdaptiveBackoff implements Backoff {
+    private static final double CANDIDATE_RATIO = Math.sqrt(2);
+
+    // the counts are kept in sixteenths so that halving them does not round small counts down to zero too early
+    private static final long ONE = 16;
+
+    private final long[] candidates;
+
+    private final AtomicLongArray trials;
+
+    private final AtomicLongArray successes;
+
+    private final AtomicLong observations = new AtomicLong();
+
+    private final AtomicLong picks = new AtomicLong();
+
+    private final long halfLife;
+
+    private final long explorationPeriod;
+
+    private final long attemptCostMillis;
+
+    private final Workspace workspace;
+
+    private final AtomicInteger pendingRefreshes = new AtomicInteger();
+
+    private volatile int best;
+
+    public AdaptiveBackoff(long minDelayMillis, long maxDelayMillis) {
+        this(minDelayMillis, maxDelayMillis, 1_000, 0.05, 1);
+    }
+
+    /**
+     * @param halfLife          the number of observations after which the counts are halved.
+     * @param explorationRate   the share of random picks.
+     * @param attemptCostMillis the time an attempt costs on top of its delay, e.g. its mean latency.
+     */
+    public AdaptiveBackoff(
+            long minDelayMillis, long maxDelayMillis, long halfLife, double explorationRate, long attemptCostMillis) {
+        if (minDelayMillis < 0 || maxDelayMillis < minDelayMillis) {
+            throw new IllegalArgumentException("Min delay should not be negative nor greater than max delay");
+        }
+        if (halfLife < 1 || !(explorationRate >= 0 && explorationRate <= 1) || attemptCostMillis < 0) {
+            throw new IllegalArgumentException(
+                    "Half-life should be positive, exploration rate in [0, 1] and attempt cost not negative");
+        }
+        this.candidates = candidates(minDelayMillis, maxDelayMillis);
+        this.trials = new AtomicLongArray(candidates.length);
+        this.successes = new AtomicLongArray(candidates.length);
+        this.halfLife = halfLife;
+        this.explorationPeriod = explorationRate == 0 ? 0 : Math.max(1, Math.round(1 / explorationRate));
+        // an attempt costs at least a millisecond, which keeps a zero delay from scoring infinitely
+        this.attemptCostMillis = Math.max(1, attemptCostMillis);
+        this.workspace = new Workspace(candidates.length);
+        this.best = bestOf(estimates(workspace));
+    }
+
+    /**
+     * Explores from a hash of the number of picks rather than a random generator, which keeps simulations reproducible
+     * without any contention. Exploring the candidates in turn instead would sample each one at the same phases of a
+     * periodic failure pattern, and so learn a biased rate.
+     */
+    @Override
+    public long delayMillis(int attempt) {
+        if (explorationPeriod > 0) {
+            var hash = mix(picks.incrementAndGet());
+            if (Long.remainderUnsigned(hash, explorationPeriod) == 0) {
+                return candidates[(int) Long.remainderUnsigned(hash >>> 32, candidates.length)];
+            }
+        }
+        return candidates[best];
+    }
+
+    @Override
+    public void record(long delayMillis, boolean success) {
+        var index = indexOf(delayMillis);
+        trials.addAndGet(index, ONE);
+        if (success) {
+            successes.addAndGet(index, ONE);
+        }
+        if (observations.incrementAndGet() % halfLife == 0) {
+            decay();
+        }
+        refresh();
+    }
+
+    /**
+     * @return the delay picked when not exploring.
+     */
+    public long bestDelayMillis() {
+        return candidates[best];
+    }
+
+    /**
+     * @return the estimated success rate of a retry made after the candidate delay closest to the given one.
+     */
+    public double successRate(long delayMillis) {
+        return estimates(new Workspace(candidates.length))[indexOf(delayMillis)];
+    }
+
+    public long[] candidateDelaysMillis() {
+        return candidates.clone();
+    }
+
+    /**
+     * Only the thread finding no refresh pending recomputes, and does it again for the outcomes recorded meanwhile, so
+     * the workspace is never shared and the last outcome is never left out.
+     */
+    private void refresh() {
+        if (pendingRefreshes.getAndIncrement() > 0) {
+            return;
+        }
+        var missed = 1;
+        do {
+            best = bestOf(estimates(workspace));
+            missed = pendingRefreshes.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private int bestOf(double[] estimates) {
+        var bestIndex = 0;
+        var bestScore = -1.0;
+        for (int i = 0; i < candidates.length; i++) {
+            var score = estimates[i] / (candidates[i] + attemptCostMillis);
+            if (score > bestScore) {
+                bestIndex = i;
+                bestScore = score;
+            }
+        }
+        return bestIndex;
+    }
+
+    /**
+     * Pools adjacent violators: a candidate whose rate is above the one of a longer delay is merged with it, until the
+     * rates are non-decreasing. A candidate without any trial gets the rate of the next longer one that has some, the
+     * most it can be, or 1 when there is none.
+     */
+    private double[] estimates(Workspace workspace) {
+        var blockSuccesses = workspace.blockSuccesses;
+        var blockTrials = workspace.blockTrials;
+        var blockEnds = workspace.blockEnds;
+        var estimates = workspace.estimates;
+        var blocks = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            var trialCount = trials.get(i);
+            if (trialCount <= 0) {
+                continue;
+            }
+            blockSuccesses[blocks] = Math.min(successes.get(i), trialCount);
+            blockTrials[blocks] = trialCount;
+            blockEnds[blocks] = i;
+            blocks++;
+            while (blocks > 1 && rate(blockSuccesses, blockTrials, blocks - 2)
+                    > rate(blockSuccesses, blockTrials, blocks - 1)) {
+                blockSuccesses[blocks - 2] += blockSuccesses[blocks - 1];
+                blockTrials[blocks - 2] += blockTrials[blocks - 1];
+                blockEnds[blocks - 2] = blockEnds[blocks - 1];
+                blocks--;
+            }
+        }
+
+        var block = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            while (block < blocks && blockEnds[block] < i) {
+                block++;
+            }
+            estimates[i] = block < blocks ? rate(blockSuccesses, blockTrials, block) : 1.0;
+        }
+        return estimates;
+    }
+
+    // half a success and half a failure assumed up front keep the rates of small counts away from 0 and 1
+    private static double rate(long[] successes, long[] trials, int block) {
+        return (successes[block] + ONE / 2.0) / (trials[block] + ONE);
+    }
+
+    private void decay() {
+        for (int i = 0; i < candidates.length; i++) {
+            trials.getAndUpdate(i, count -> count / 2);
+            successes.getAndUpdate(i, count -> count / 2);
+        }
+    }
+
+    private int indexOf(long delayMillis) {
+        var index = Arrays.binarySearch(candidates, delayMillis);
+        if (index >= 0) {
+            return index;
+        }
+        // the delay came from elsewhere, e.g. a retry-after hint: count it for the closest lower candidate
+        return Math.max(0, -index - 2);
+    }
+
+    // the finalizer of SplitMix64
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    // the arrays of an estimation, reused by the refreshes
+    private static final class Workspace {
+        final long[] blockSuccesses;
+
+        final long[] blockTrials;
+
+        final int[] blockEnds;
+
+        final double[] estimates;
+
+        Workspace(int size) {
+            this.blockSuccesses = new long[size];
+            this.blockTrials = new long[size];
+            this.blockEnds = new int[size];
+            this.estimates = new double[size];
+        }
+    }
+
+    private static long[] candidates(long minDelayMillis, long maxDelayMillis) {
+        var candidates = new long[64];
+        var count = 0;
+        var delay = (double) Math.max(1, minDelayMillis);
+        if (minDelayMillis == 0) {
+            candidates[count++] = 0;
+        }
+        while (count < candidates.length - 1 && delay < maxDelayMillis) {
+            var rounded = Math.round(delay);
+            if (count == 0 || rounded > candidates[count - 1]) {
+                candidates[count++] = rounded;
+            }
+            delay *= CANDIDATE_RATIO;
+        }
+        if (count == 0 || candidates[count - 1] < maxDelayMillis) {
+            candidates[count++] = maxDelayMillis;
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+}
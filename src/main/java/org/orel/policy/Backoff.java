@@ -0,0 +1,63 @@
+package org.orel.policy;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Computes the delay to wait after a failed attempt, before the next one.
+ */
+@FunctionalInterface
+public interface Backoff {
+
+    /**
+     * @param attempt the number of the attempt that just failed, starting at 1.
+     */
+    long delayMillis(int attempt);
+
+    /**
+     * Tells how the attempt made after waiting the given delay went, for backoffs learning from the outcomes such as
+     * {@link AdaptiveBackoff}. The delay may also come from a {@link RetryAfter} hint.
+     */
+    default void record(long delayMillis, boolean success) {}
+
+    /**
+     * @return the backoff followed by one call, asked for at its start. Most backoffs are the same for every call and
+     * return themselves.
+     */
+    default Backoff forCall() {
+        return this;
+    }
+
+    static Backoff fixed(long delayMillis) {
+        if (delayMillis < 0) {
+            throw new IllegalArgumentException("Delay should not be negative");
+        }
+        return new FixedBackoff(delayMillis);
+    }
+
+    /**
+     * Multiplies the delay after each failed attempt until it reaches the maximum. The delays are computed once, so
+     * looking one up is an array access.
+     */
+    static Backoff exponential(long initialDelayMillis, double multiplier, long maxDelayMillis) {
+        if (initialDelayMillis <= 0) {
+            throw new IllegalArgumentException("Initial delay should be positive");
+        }
+        if (!(multiplier >= 1)) {
+            throw new IllegalArgumentException("Multiplier should be at least 1");
+        }
+        if (maxDelayMillis < initialDelayMillis) {
+            throw new IllegalArgumentException("Max delay should not be lower than the initial delay");
+        }
+        return new ExponentialBackoff(initialDelayMillis, multiplier, maxDelayMillis);
+    }
+
+    /**
+     * Adapts the delay supplier of a {@link org.orel.RetryConfig}, which is asked for a delay once per call: all the
+     * retries of the call wait that delay.
+     */
+    static Backoff of(Supplier<Long> delay) {
+        Objects.requireNonNull(delay, "Delay should not be null");
+        return new SuppliedBackoff(delay);
+    }
+}
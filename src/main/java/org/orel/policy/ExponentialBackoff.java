@@ -0,0 +1,41 @@
+package org.orel.policy;
+
+import java.util.Arrays;
+
+final class ExponentialBackoff implements Backoff {
+    private final long initialDelayMillis;
+
+    private final double multiplier;
+
+    private final long maxDelayMillis;
+
+    private final long[] delays;
+
+    ExponentialBackoff(long initialDelayMillis, double multiplier, long maxDelayMillis) {
+        this.initialDelayMillis = initialDelayMillis;
+        this.multiplier = multiplier;
+        this.maxDelayMillis = maxDelayMillis;
+
+        var delays = new long[64];
+        var count = 0;
+        var delay = (double) initialDelayMillis;
+        while (count < delays.length - 1 && delay < maxDelayMillis) {
+            delays[count++] = (long) delay;
+            delay *= multiplier;
+        }
+        delays[count++] = maxDelayMillis;
+        this.delays = Arrays.copyOf(delays, count);
+    }
+
+    @Override
+    public long delayMillis(int attempt) {
+        return delays[Math.min(attempt, delays.length) - 1];
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "ExponentialBackoff[initialDelayMillis=%s, multiplier=%s, maxDelayMillis=%s]",
+                initialDelayMillis, multiplier, maxDelayMillis);
+    }
+}
@@ -0,0 +1,9 @@
+package org.orel.policy;
+
+record FixedBackoff(long delayMillis) implements Backoff {
+
+    @Override
+    public long delayMillis(int attempt) {
+        return delayMillis;
+    }
+}
@@ -0,0 +1,19 @@
+package org.orel.policy;
+
+/**
+ * The class of the work a policy retries, from the most to the least important. When capacity is scarce, the
+ * {@link org.orel.limiter.RateLimiter#prioritized(org.orel.limiter.RateLimiter, java.time.Duration) prioritized} rate
+ * limiters grant their permits to the higher classes first and the
+ * {@link org.orel.admission.AdmissionController admission controllers} shed the lower classes first.
+ */
+public enum Priority {
+    /**
+     * User facing work, e.g. serving a request someone waits for.
+     */
+    CRITICAL,
+    NORMAL,
+    /**
+     * Work that can wait, e.g. a batch job.
+     */
+    BACKGROUND
+}
@@ -0,0 +1,47 @@
+package org.orel.policy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+
+/**
+ * Implemented by the exceptions of a downstream that tells when to come back, e.g. from a throttling response. The
+ * retry loop then waits for the suggested delay instead of its backoff, see
+ * {@link RetryPolicy#delayMillis(int, Exception)}.
+ */
+public interface RetryAfter {
+
+    /**
+     * @return the suggested delay before the next attempt, or null if there is none.
+     */
+    Duration retryAfter();
+
+    /**
+     * Parses the value of an HTTP {@code Retry-After} header, either a number of seconds or a date.
+     *
+     * @param now the current wall clock time, to turn a date into a delay.
+     * @return the delay, never negative, or null if the value cannot be parsed.
+     */
+    static Duration parseHeader(String value, Instant now) {
+        Objects.requireNonNull(now, "Now should not be null");
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        var trimmed = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(trimmed)));
+        } catch (NumberFormatException e) {
+            // not a number of seconds, maybe a date
+        }
+        try {
+            var date = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            var delay = Duration.between(now, date);
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
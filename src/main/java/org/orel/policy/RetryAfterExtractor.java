@@ -0,0 +1,30 @@
+package org.orel.policy;
+
+import java.time.Duration;
+
+/**
+ * Finds the delay a failure suggests before the next attempt, for failures that cannot implement {@link RetryAfter}
+ * themselves, e.g. the exceptions of an HTTP client carrying the response headers.
+ */
+@FunctionalInterface
+public interface RetryAfterExtractor {
+
+    /**
+     * Looks for a {@link RetryAfter} in the failure and its causes.
+     */
+    RetryAfterExtractor DEFAULT = failure -> {
+        Throwable current = failure;
+        for (int depth = 0; current != null && depth < 8; depth++) {
+            if (current instanceof RetryAfter retryAfter) {
+                return retryAfter.retryAfter();
+            }
+            current = current.getCause();
+        }
+        return null;
+    };
+
+    /**
+     * @return the suggested delay, or null if the failure has none.
+     */
+    Duration retryAfter(Exception failure);
+}
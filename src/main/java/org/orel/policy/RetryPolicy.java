@@ -0,0 +1,417 @@
+package org.orel.policy;
+
+import org.orel.admission.AdmissionController;
+import org.orel.limiter.RateLimiter;
+import org.orel.operator.FaillibleConsumer;
+import org.orel.operator.FaillibleFunction;
+import org.orel.operator.FaillibleRunnable;
+import org.orel.operator.FaillibleSupplier;
+import org.orel.retryable.RetryListener;
+import org.orel.retryable.RetryableConsumer;
+import org.orel.retryable.RetryableFunction;
+import org.orel.retryable.RetryableRunnable;
+import org.orel.retryable.RetryableSupplier;
+import org.orel.time.Clock;
+import org.orel.time.Sleeper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * The immutable, compiled form of a retry configuration, built once with a {@link Builder} and meant to be shared,
+ * e.g. through a {@link RetryPolicyRegistry}. The decorators it returns can be kept and called concurrently, so a hot
+ * path does not allocate any configuration per call. <br><br>
+ *
+ * Example:
+ *
+ * <pre>
+ *      RetryPolicy policy = RetryPolicy.builder("user-service")
+ *          .maxAttempts(5)
+ *          .backoff(Backoff.exponential(10, 2, 1_000))
+ *          .abortOn(IllegalArgumentException.class)
+ *          .build();
+ *
+ *      FaillibleFunction<Long, User, Exception> lookup = policy.decorateFunction(userService::find);
+ * </pre>
+ *
+ * Note: it retries indefinitely if the maximum number of attempts is not positive. Per-request state, a
+ * {@link org.orel.Deadline} or a {@link org.orel.CancellationToken}, is given to the {@link RetryableFunction} instead.
+ */
+public final class RetryPolicy {
+    private final String name;
+
+    private final long maxAttempts;
+
+    private final boolean enabled;
+
+    private final Priority priority;
+
+    private final Backoff backoff;
+
+    private final Class<?>[] retryOn;
+
+    private final Class<?>[] abortOn;
+
+    private final Predicate<? super Exception> retryIf;
+
+    private final RetryListener listener;
+
+    private final RateLimiter rateLimiter;
+
+    private final AdmissionController admissionController;
+
+    private final Clock clock;
+
+    private final Sleeper sleeper;
+
+    private final RetryAfterExtractor retryAfterExtractor;
+
+    private final Duration minRetryAfter;
+
+    private final Duration maxRetryAfter;
+
+    private RetryPolicy(Builder builder) {
+        this.name = builder.name;
+        this.maxAttempts = builder.maxAttempts;
+        this.enabled = builder.enabled;
+        this.priority = builder.priority;
+        this.backoff = builder.backoff;
+        this.retryOn = builder.retryOn.toArray(new Class<?>[0]);
+        this.abortOn = builder.abortOn.toArray(new Class<?>[0]);
+        this.retryIf = builder.retryIf;
+        this.listener = switch (builder.listeners.size()) {
+            case 0 -> RetryListener.NOOP;
+            case 1 -> builder.listeners.get(0);
+            default -> RetryListener.composite(builder.listeners.toArray(new RetryListener[0]));
+        };
+        this.rateLimiter = builder.rateLimiter;
+        this.admissionController = builder.admissionController;
+        this.clock = builder.clock;
+        this.sleeper = builder.sleeper;
+        this.retryAfterExtractor = builder.retryAfterExtractor;
+        this.minRetryAfter = builder.minRetryAfter;
+        this.maxRetryAfter = builder.maxRetryAfter;
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    public Builder toBuilder() {
+        var builder = new Builder(name)
+                .maxAttempts(maxAttempts)
+                .enabled(enabled)
+                .priority(priority)
+                .backoff(backoff)
+                .rateLimiter(rateLimiter)
+                .admissionController(admissionController)
+                .clock(clock)
+                .sleeper(sleeper)
+                .retryAfter(retryAfterExtractor)
+                .retryAfterBounds(minRetryAfter, maxRetryAfter);
+        builder.retryOn.addAll(List.of(retryOn));
+        builder.abortOn.addAll(List.of(abortOn));
+        builder.retryIf = retryIf;
+        if (listener != RetryListener.NOOP) {
+            builder.listener(listener);
+        }
+        return builder;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long maxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * A disabled policy makes a single attempt, as if the function was not retryable.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Priority priority() {
+        return priority;
+    }
+
+    public Backoff backoff() {
+        return backoff;
+    }
+
+    public RetryListener listener() {
+        return listener;
+    }
+
+    /**
+     * @return the rate limiter every attempt acquires a permit from, or null.
+     */
+    public RateLimiter rateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * @return the controller admitting the attempts, or null.
+     */
+    public AdmissionController admissionController() {
+        return admissionController;
+    }
+
+    public Clock clock() {
+        return clock;
+    }
+
+    public Sleeper sleeper() {
+        return sleeper;
+    }
+
+    /**
+     * The delay to wait after the given failed attempt: the one the failure suggests if any, clamped by the retry-after
+     * bounds, otherwise the one of the backoff. A suggested delay going past the deadline of the request fails it right
+     * away, see {@link org.orel.Deadline}.
+     */
+    public long delayMillis(int attempt, Exception failure) {
+        var retryAfter = retryAfterMillis(failure);
+        return retryAfter >= 0 ? retryAfter : backoff.delayMillis(attempt);
+    }
+
+    /**
+     * @return the delay the failure suggests, clamped by the retry-after bounds, or -1 if it suggests none.
+     */
+    public long retryAfterMillis(Exception failure) {
+        var retryAfter = failure == null ? null : retryAfterExtractor.retryAfter(failure);
+        if (retryAfter == null) {
+            return -1;
+        }
+        if (retryAfter.compareTo(minRetryAfter) < 0) {
+            return minRetryAfter.toMillis();
+        }
+        if (retryAfter.compareTo(maxRetryAfter) > 0) {
+            return maxRetryAfter.toMillis();
+        }
+        return retryAfter.toMillis();
+    }
+
+    /**
+     * A failure that is not retryable stops the retries right away and is thrown as is.
+     */
+    public boolean isRetryable(Exception exception) {
+        for (var type : abortOn) {
+            if (type.isInstance(exception)) {
+                return false;
+            }
+        }
+        if (retryOn.length > 0 && !isInstanceOfAny(retryOn, exception)) {
+            return false;
+        }
+        return retryIf == null || retryIf.test(exception);
+    }
+
+    public <T, R> RetryableFunction<T, R> decorateFunction(FaillibleFunction<? super T, ? extends R, Exception> function) {
+        return new RetryableFunction<>(function, this);
+    }
+
+    public <T> RetryableSupplier<T> decorateSupplier(FaillibleSupplier<T, Exception> supplier) {
+        return new RetryableSupplier<>(supplier, this);
+    }
+
+    public RetryableRunnable decorateRunnable(FaillibleRunnable<Exception> runnable) {
+        return new RetryableRunnable(runnable, this);
+    }
+
+    public <T> RetryableConsumer<T> decorateConsumer(FaillibleConsumer<T, Exception> consumer) {
+        return new RetryableConsumer<>(consumer, this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "RetryPolicy[name=%s, maxAttempts=%s, enabled=%s, priority=%s, backoff=%s]",
+                name, maxAttempts, enabled, priority, backoff);
+    }
+
+    private static boolean isInstanceOfAny(Class<?>[] types, Exception exception) {
+        for (var type : types) {
+            if (type.isInstance(exception)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static final class Builder {
+        private final String name;
+
+        private long maxAttempts = 3;
+
+        private boolean enabled = true;
+
+        private Priority priority = Priority.NORMAL;
+
+        private Backoff backoff = Backoff.fixed(0);
+
+        private final List<Class<?>> retryOn = new ArrayList<>();
+
+        private final List<Class<?>> abortOn = new ArrayList<>();
+
+        private Predicate<? super Exception> retryIf;
+
+        private final List<RetryListener> listeners = new ArrayList<>();
+
+        private RateLimiter rateLimiter;
+
+        private AdmissionController admissionController;
+
+        private Clock clock = Clock.SYSTEM;
+
+        private Sleeper sleeper = Sleeper.THREAD;
+
+        private RetryAfterExtractor retryAfterExtractor = RetryAfterExtractor.DEFAULT;
+
+        private Duration minRetryAfter = Duration.ZERO;
+
+        private Duration maxRetryAfter = Duration.ofMillis(Long.MAX_VALUE);
+
+        private Builder(String name) {
+            this.name = Objects.requireNonNull(name, "Name should not be null");
+        }
+
+        /**
+         * Counts the first attempt, 3 by default. Not positive means unbounded.
+         */
+        public Builder maxAttempts(long maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        /**
+         * The class of the work, {@link Priority#NORMAL} by default, which decides who gets the permits of a
+         * prioritized rate limiter first and who is shed first by the admission controller.
+         */
+        public Builder priority(Priority priority) {
+            this.priority = Objects.requireNonNull(priority, "Priority should not be null");
+            return this;
+        }
+
+        public Builder backoff(Backoff backoff) {
+            this.backoff = Objects.requireNonNull(backoff, "Backoff should not be null");
+            return this;
+        }
+
+        /**
+         * Restricts the retries to failures of these types. Every failure is retried by default.
+         */
+        @SafeVarargs
+        public final Builder retryOn(Class<? extends Exception>... types) {
+            for (var type : types) {
+                retryOn.add(Objects.requireNonNull(type, "Type should not be null"));
+            }
+            return this;
+        }
+
+        /**
+         * Never retries failures of these types, even when they match {@link #retryOn(Class[])}.
+         */
+        @SafeVarargs
+        public final Builder abortOn(Class<? extends Exception>... types) {
+            for (var type : types) {
+                abortOn.add(Objects.requireNonNull(type, "Type should not be null"));
+            }
+            return this;
+        }
+
+        /**
+         * Only retries the failures matching the predicate, on top of the type based rules.
+         */
+        public Builder retryIf(Predicate<? super Exception> predicate) {
+            Objects.requireNonNull(predicate, "Predicate should not be null");
+            if (retryIf == null) {
+                retryIf = predicate;
+            } else {
+                Predicate<? super Exception> previous = retryIf;
+                retryIf = exception -> previous.test(exception) && predicate.test(exception);
+            }
+            return this;
+        }
+
+        /**
+         * Adds a listener, several listeners are notified in the order they were added.
+         */
+        public Builder listener(RetryListener listener) {
+            Objects.requireNonNull(listener, "Listener should not be null");
+            if (listener != RetryListener.NOOP) {
+                listeners.add(listener);
+            }
+            return this;
+        }
+
+        public Builder rateLimiter(RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return this;
+        }
+
+        /**
+         * Sheds the attempts, the retries first, while the controller detects an overload. A shed attempt stops the
+         * retries with an {@link AdmissionController.OverloadedException}.
+         */
+        public Builder admissionController(AdmissionController admissionController) {
+            this.admissionController = admissionController;
+            return this;
+        }
+
+        /**
+         * Times the attempts for the listener, {@link Clock#SYSTEM} by default.
+         */
+        public Builder clock(Clock clock) {
+            this.clock = Objects.requireNonNull(clock, "Clock should not be null");
+            return this;
+        }
+
+        /**
+         * Waits for the backoff delays, {@link Sleeper#THREAD} by default.
+         */
+        public Builder sleeper(Sleeper sleeper) {
+            this.sleeper = Objects.requireNonNull(sleeper, "Sleeper should not be null");
+            return this;
+        }
+
+        /**
+         * Finds the delays suggested by the failures, {@link RetryAfterExtractor#DEFAULT} by default.
+         */
+        public Builder retryAfter(RetryAfterExtractor extractor) {
+            this.retryAfterExtractor = Objects.requireNonNull(extractor, "Extractor should not be null");
+            return this;
+        }
+
+        /**
+         * Bounds the delays suggested by the failures, which are not bounded by default.
+         */
+        public Builder retryAfterBounds(Duration min, Duration max) {
+            Objects.requireNonNull(min, "Min should not be null");
+            Objects.requireNonNull(max, "Max should not be null");
+            if (min.isNegative() || max.compareTo(min) < 0) {
+                throw new IllegalArgumentException("Min should not be negative nor greater than max");
+            }
+            if (max.compareTo(Duration.ofMillis(Long.MAX_VALUE)) > 0) {
+                max = Duration.ofMillis(Long.MAX_VALUE);
+            }
+            this.minRetryAfter = min;
+            this.maxRetryAfter = max;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
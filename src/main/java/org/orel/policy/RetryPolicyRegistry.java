@@ -0,0 +1,135 @@
+package org.orel.policy;
+
+import org.orel.operator.FaillibleFunction;
+import org.orel.operator.FaillibleSupplier;
+import org.orel.retryable.RetryableFunction;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Shares {@link RetryPolicy} instances by name, so that they are built once at startup and looked up afterwards. <br><br>
+ *
+ * A registered policy can be swapped at runtime, e.g. to lower the number of attempts during an incident. The
+ * decorators built through the registry, or from a {@link #reference(String)}, read the current policy once per call
+ * without locking, so they pick up a new policy from their next call on.
+ */
+public final class RetryPolicyRegistry {
+    private final ConcurrentHashMap<String, Slot> policies = new ConcurrentHashMap<>();
+
+    /**
+     * @throws IllegalStateException if a policy with the same name is already registered.
+     */
+    public RetryPolicy register(RetryPolicy policy) {
+        Objects.requireNonNull(policy, "Policy should not be null");
+        var existing = policies.putIfAbsent(policy.name(), new Slot(policy));
+        if (existing != null) {
+            throw new IllegalStateException(String.format("A policy named '%s' is already registered", policy.name()));
+        }
+        return policy;
+    }
+
+    /**
+     * Registers the policy in place of the one with the same name, if any.
+     *
+     * @return the previous policy, or null if there was none.
+     */
+    public RetryPolicy replace(RetryPolicy policy) {
+        Objects.requireNonNull(policy, "Policy should not be null");
+        var created = new Slot(policy);
+        var existing = policies.putIfAbsent(policy.name(), created);
+        return existing == null ? null : existing.getAndSet(policy);
+    }
+
+    /**
+     * Atomically swaps the policy with the one computed from it, which must keep its name.
+     *
+     * @return the new policy.
+     * @throws NoSuchElementException if no policy is registered with this name.
+     */
+    public RetryPolicy update(String name, UnaryOperator<RetryPolicy> update) {
+        Objects.requireNonNull(update, "Update should not be null");
+        return slot(name).updateAndGet(policy -> {
+            var updated = Objects.requireNonNull(update.apply(policy), "Policy should not be null");
+            if (!updated.name().equals(name)) {
+                throw new IllegalArgumentException(
+                        String.format("Policy named '%s' cannot replace '%s'", updated.name(), name));
+            }
+            return updated;
+        });
+    }
+
+    public RetryPolicy computeIfAbsent(String name, Function<String, RetryPolicy> factory) {
+        Objects.requireNonNull(name, "Name should not be null");
+        Objects.requireNonNull(factory, "Factory should not be null");
+        return policies.computeIfAbsent(name, key -> {
+            var policy = Objects.requireNonNull(factory.apply(key), "Policy should not be null");
+            if (!policy.name().equals(key)) {
+                throw new IllegalArgumentException(
+                        String.format("Policy named '%s' cannot be registered as '%s'", policy.name(), key));
+            }
+            return new Slot(policy);
+        }).get();
+    }
+
+    /**
+     * @throws NoSuchElementException if no policy is registered with this name.
+     */
+    public RetryPolicy get(String name) {
+        return slot(name).get();
+    }
+
+    public Optional<RetryPolicy> find(String name) {
+        return Optional.ofNullable(policies.get(name)).map(Slot::get);
+    }
+
+    /**
+     * @return a view always giving the current policy registered with this name, which keeps the last one once the
+     * name is removed.
+     * @throws NoSuchElementException if no policy is registered with this name.
+     */
+    public Supplier<RetryPolicy> reference(String name) {
+        return slot(name);
+    }
+
+    public <T, R> RetryableFunction<T, R> decorateFunction(
+            String name, FaillibleFunction<? super T, ? extends R, Exception> function) {
+        return new RetryableFunction<>(function, reference(name));
+    }
+
+    public <T> FaillibleSupplier<T, Exception> decorateSupplier(String name, FaillibleSupplier<T, Exception> supplier) {
+        var retryableFunction = new RetryableFunction<Void, T>(ignored -> supplier.get(), reference(name));
+        return () -> retryableFunction.apply(null);
+    }
+
+    public RetryPolicy remove(String name) {
+        var slot = policies.remove(name);
+        return slot == null ? null : slot.get();
+    }
+
+    public Set<String> names() {
+        return Set.copyOf(policies.keySet());
+    }
+
+    private Slot slot(String name) {
+        var slot = policies.get(name);
+        if (slot == null) {
+            throw new NoSuchElementException(String.format("No policy named '%s'", name));
+        }
+        return slot;
+    }
+
+    private static final class Slot extends AtomicReference<RetryPolicy> implements Supplier<RetryPolicy> {
+
+        Slot(RetryPolicy policy) {
+            super(policy);
+        }
+    }
+}
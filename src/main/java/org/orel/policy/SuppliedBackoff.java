@@ -0,0 +1,33 @@
+package org.orel.policy;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the backoff of the last delay drawn, so that a supplier returning the same delay every call, as most do,
+ * does not allocate one per call.
+ */
+final class SuppliedBackoff implements Backoff {
+    private final Supplier<Long> delay;
+
+    private volatile FixedBackoff last;
+
+    SuppliedBackoff(Supplier<Long> delay) {
+        this.delay = Objects.requireNonNull(delay, "Delay should not be null");
+    }
+
+    @Override
+    public long delayMillis(int attempt) {
+        return delay.get();
+    }
+
+    @Override
+    public Backoff forCall() {
+        long delayMillis = delay.get();
+        var backoff = last;
+        if (backoff == null || backoff.delayMillis() != delayMillis) {
+            last = backoff = new FixedBackoff(delayMillis);
+        }
+        return backoff;
+    }
+}
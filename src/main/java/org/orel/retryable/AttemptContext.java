@@ -0,0 +1,90 @@
+package org.orel.retryable;
+
+import org.orel.Deadline;
+import org.orel.operator.RetryContext;
+import org.orel.time.Clock;
+
+/**
+ * The {@link RetryContext} of one call, updated in place by the retry loop before every attempt. A thread reuses the
+ * same context from call to call, unless a call is nested in another one, which then gets a context of its own.
+ */
+final class AttemptContext implements RetryContext {
+    private static final ThreadLocal<AttemptContext> CURRENT = ThreadLocal.withInitial(AttemptContext::new);
+
+    private Clock clock;
+
+    private long startNanos;
+
+    private long maxAttempts;
+
+    private Deadline deadline;
+
+    private int attempt;
+
+    private Exception lastException;
+
+    private boolean inUse;
+
+    /**
+     * @return the context of a call starting on the current thread, to {@link #release()} when it ends.
+     */
+    static AttemptContext acquire(Clock clock, long startNanos, long maxAttempts, Deadline deadline) {
+        var context = CURRENT.get();
+        if (context.inUse) {
+            context = new AttemptContext();
+        }
+        context.inUse = true;
+        context.clock = clock;
+        context.startNanos = startNanos;
+        context.maxAttempts = maxAttempts;
+        context.deadline = deadline;
+        context.attempt = 0;
+        return context;
+    }
+
+    /**
+     * Drops the references of the call, so that a thread keeping its context does not keep them too.
+     */
+    void release() {
+        clock = null;
+        deadline = null;
+        lastException = null;
+        inUse = false;
+    }
+
+    void update(int attempt, Exception lastException) {
+        this.attempt = attempt;
+        this.lastException = lastException;
+    }
+
+    @Override
+    public int attempt() {
+        return attempt;
+    }
+
+    @Override
+    public long remainingAttempts() {
+        return maxAttempts < 1 ? Long.MAX_VALUE : maxAttempts - attempt;
+    }
+
+    @Override
+    public long elapsedNanos() {
+        return clock.nanoTime() - startNanos;
+    }
+
+    @Override
+    public long remainingNanos() {
+        return deadline == null ? Long.MAX_VALUE : Math.max(0, deadline.remainingNanos());
+    }
+
+    @Override
+    public Exception lastException() {
+        return lastException;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryContext[attempt=" + attempt + ", remainingAttempts=" + remainingAttempts()
+                + ", elapsedNanos=" + elapsedNanos() + ", remainingNanos=" + remainingNanos() + "]";
+    }
+}
@@ -0,0 +1,85 @@
+package org.orel.retryable;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Receives the events of the retry loop of a {@link RetryableFunction}, attached through
+ * {@link org.orel.RetryConfig#withListener(RetryListener)}. <br><br>
+ *
+ * Callbacks run synchronously on the retrying thread, so implementations should be fast and must not throw. When no
+ * listener is attached the loop skips the events altogether, including the clock reads they need.
+ */
+public interface RetryListener {
+
+    RetryListener NOOP = new RetryListener() {};
+
+    default void onAttemptStarted(String policy, int attempt) {}
+
+    default void onAttemptFailed(String policy, int attempt, Exception exception, long durationNanos) {}
+
+    default void onBackoffScheduled(String policy, int attempt, long delayMillis) {}
+
+    default void onSuccess(String policy, int attempts, long elapsedNanos) {}
+
+    /**
+     * The last allowed attempt failed.
+     */
+    default void onExhausted(String policy, int attempts, Exception lastException, long elapsedNanos) {}
+
+    /**
+     * The loop stopped before running out of attempts, e.g. because the thread was interrupted during a backoff.
+     */
+    default void onAborted(String policy, int attempts, Exception cause) {}
+
+    /**
+     * The loop stopped before running out of attempts, possibly before the first one. Forwards to
+     * {@link #onAborted(String, int, Exception)} unless overridden.
+     *
+     * @param elapsedNanos the time since the call started.
+     */
+    default void onAborted(String policy, int attempts, Exception cause, long elapsedNanos) {
+        onAborted(policy, attempts, cause);
+    }
+
+    static RetryListener composite(RetryListener... listeners) {
+        var delegates = List.of(listeners);
+        delegates.forEach(listener -> Objects.requireNonNull(listener, "Listener should not be null"));
+        return new RetryListener() {
+            @Override
+            public void onAttemptStarted(String policy, int attempt) {
+                delegates.forEach(listener -> listener.onAttemptStarted(policy, attempt));
+            }
+
+            @Override
+            public void onAttemptFailed(String policy, int attempt, Exception exception, long durationNanos) {
+                delegates.forEach(listener -> listener.onAttemptFailed(policy, attempt, exception, durationNanos));
+            }
+
+            @Override
+            public void onBackoffScheduled(String policy, int attempt, long delayMillis) {
+                delegates.forEach(listener -> listener.onBackoffScheduled(policy, attempt, delayMillis));
+            }
+
+            @Override
+            public void onSuccess(String policy, int attempts, long elapsedNanos) {
+                delegates.forEach(listener -> listener.onSuccess(policy, attempts, elapsedNanos));
+            }
+
+            @Override
+            public void onExhausted(String policy, int attempts, Exception lastException, long elapsedNanos) {
+                delegates.forEach(listener -> listener.onExhausted(policy, attempts, lastException, elapsedNanos));
+            }
+
+            @Override
+            public void onAborted(String policy, int attempts, Exception cause) {
+                delegates.forEach(listener -> listener.onAborted(policy, attempts, cause));
+            }
+
+            @Override
+            public void onAborted(String policy, int attempts, Exception cause, long elapsedNanos) {
+                delegates.forEach(listener -> listener.onAborted(policy, attempts, cause, elapsedNanos));
+            }
+        };
+    }
+}
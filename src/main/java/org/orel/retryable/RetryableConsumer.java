@@ -3,24 +3,28 @@ package org.orel.retryable;
 import org.orel.RetryConfig;
 import org.orel.operator.FaillibleConsumer;
 import org.orel.operator.FaillibleFunction;
+import org.orel.policy.RetryPolicy;
 
 public class RetryableConsumer<T> implements FaillibleConsumer<T, Exception> {
-    private final FaillibleConsumer<T, Exception> delegate;
-
-    private final RetryConfig retryConfig;
+    private final RetryableFunction<T, Void> retryableFunction;
 
     public RetryableConsumer(FaillibleConsumer<T, Exception> delegate, RetryConfig retryConfig) {
-        this.retryConfig = retryConfig;
-        this.delegate = delegate;
+        this.retryableFunction = new RetryableFunction<>(asFunction(delegate), retryConfig);
+    }
+
+    public RetryableConsumer(FaillibleConsumer<T, Exception> delegate, RetryPolicy policy) {
+        this.retryableFunction = new RetryableFunction<>(asFunction(delegate), policy);
     }
 
     @Override
     public void accept(T t) throws Exception {
-        FaillibleFunction<T, Void, Exception> consumer = x -> {
+        retryableFunction.apply(t);
+    }
+
+    private static <T> FaillibleFunction<T, Void, Exception> asFunction(FaillibleConsumer<T, Exception> delegate) {
+        return x -> {
             delegate.accept(x);
             return null;
         };
-
-        new RetryableFunction<>(consumer, retryConfig).apply(t);
     }
 }
@@ -1,48 +1,298 @@
 package org.orel.retryable;
 
+import org.orel.CancellationToken;
+import org.orel.Deadline;
 import org.orel.RetryConfig;
+import org.orel.admission.AdmissionController;
+import org.orel.jfr.RetryEvents;
+import org.orel.limiter.RateLimiter;
+import org.orel.operator.ContextualFunction;
 import org.orel.operator.FaillibleFunction;
+import org.orel.operator.RetryContext;
+import org.orel.policy.RetryPolicy;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Repeats the function execution until the execution is successful or the limit of retries has been
  * reached at which point a {@link RetryConfig.MaxRetriesException} is thrown. <br><br>
  *
- * Note: it retries indefinitely if the number of retries in {@link RetryConfig} is not positive.
+ * Note: it retries indefinitely if the number of retries in {@link RetryConfig} is not positive. When the
+ * {@link RetryConfig} has a rate limiter, each attempt first acquires a permit from it. When it has a
+ * {@link Deadline}, a backoff which would reach it is shortened to half of the time left, for a last attempt, and the
+ * retries stop with a {@link Deadline.DeadlineExceededException} once that one fails or the deadline passes. An attempt
+ * running is not interrupted by the deadline: the function should bound its own calls, e.g. with
+ * {@link Deadline#remaining()}. When it has a {@link CancellationToken}, cancelling it (or interrupting the thread)
+ * stops the retries with a {@link CancellationToken.CancelledException}, waking up a pending backoff right away.
+ * <br><br>
+ *
+ * The loop runs off a {@link RetryPolicy}, a {@link RetryConfig} being compiled into one when the function is built.
+ * An instance holds no state between calls, so it can be built once and shared. A failure suggesting when to come
+ * back, see {@link org.orel.policy.RetryAfter}, replaces the backoff of the policy for that attempt. When the policy
+ * has an {@link AdmissionController}, an attempt it sheds stops the retries with an
+ * {@link AdmissionController.OverloadedException}.
  **/
 public class RetryableFunction<T, R> implements FaillibleFunction<T, R, Exception> {
     private final FaillibleFunction<? super T, ? extends R, Exception> delegate;
 
-    private final RetryConfig retryConfig;
+    private final ContextualFunction<? super T, ? extends R, Exception> contextualDelegate;
+
+    private final Supplier<RetryPolicy> policySource;
+
+    private final Deadline deadline;
+
+    private final CancellationToken cancellationToken;
 
     public RetryableFunction(
             FaillibleFunction<? super T, ? extends R, Exception> function, RetryConfig RetryConfig) {
-        this.retryConfig = RetryConfig;
-        this.delegate = function;
+        this(function, RetryConfig.toPolicy(), RetryConfig.deadline(), RetryConfig.cancellationToken());
+    }
+
+    public RetryableFunction(FaillibleFunction<? super T, ? extends R, Exception> function, RetryPolicy policy) {
+        this(function, policy, null, null);
+    }
+
+    /**
+     * @param deadline          may be null.
+     * @param cancellationToken may be null.
+     */
+    public RetryableFunction(
+            FaillibleFunction<? super T, ? extends R, Exception> function,
+            RetryPolicy policy,
+            Deadline deadline,
+            CancellationToken cancellationToken) {
+        this(function, null, constant(policy), deadline, cancellationToken);
+    }
+
+    /**
+     * Follows the policy given by the source, e.g. {@link org.orel.policy.RetryPolicyRegistry#reference(String)}, which
+     * is read once at the start of every call: a policy swapped in the meantime applies from the next call on.
+     */
+    public RetryableFunction(
+            FaillibleFunction<? super T, ? extends R, Exception> function, Supplier<RetryPolicy> policySource) {
+        this(function, null, Objects.requireNonNull(policySource, "Policy source should not be null"), null, null);
+    }
+
+    /**
+     * Gives the function a {@link RetryContext} telling which attempt it runs and how much time is left, so that it
+     * can degrade on later attempts. The context is reused by the calls made on the same thread.
+     */
+    public RetryableFunction(
+            ContextualFunction<? super T, ? extends R, Exception> function, RetryConfig retryConfig) {
+        this(function, retryConfig.toPolicy(), retryConfig.deadline(), retryConfig.cancellationToken());
+    }
+
+    public RetryableFunction(ContextualFunction<? super T, ? extends R, Exception> function, RetryPolicy policy) {
+        this(function, policy, null, null);
+    }
+
+    /**
+     * @param deadline          may be null.
+     * @param cancellationToken may be null.
+     */
+    public RetryableFunction(
+            ContextualFunction<? super T, ? extends R, Exception> function,
+            RetryPolicy policy,
+            Deadline deadline,
+            CancellationToken cancellationToken) {
+        this(null, Objects.requireNonNull(function, "Function should not be null"), constant(policy), deadline,
+                cancellationToken);
+    }
+
+    private RetryableFunction(
+            FaillibleFunction<? super T, ? extends R, Exception> delegate,
+            ContextualFunction<? super T, ? extends R, Exception> contextualDelegate,
+            Supplier<RetryPolicy> policySource,
+            Deadline deadline,
+            CancellationToken cancellationToken) {
+        this.delegate = delegate;
+        this.contextualDelegate = contextualDelegate;
+        this.policySource = policySource;
+        this.deadline = deadline;
+        this.cancellationToken = cancellationToken;
     }
 
     @Override
     public R apply(T t) throws Exception {
-        var retryBackoff = retryConfig.backoffDelay().get();
-        var currentIteration = 0;
+        var policy = policySource.get();
+        // a disabled policy still makes the first attempt, it only stops retrying
+        var maxAttempts = policy.isEnabled() ? policy.maxAttempts() : 1;
+        // the plain functions, most of them, do not pay for a context
+        if (contextualDelegate == null) {
+            return apply(t, policy, maxAttempts, null);
+        }
+        var clock = policy.clock();
+        var context = AttemptContext.acquire(clock, clock.nanoTime(), maxAttempts, deadline);
+        try {
+            return apply(t, policy, maxAttempts, context);
+        } finally {
+            context.release();
+        }
+    }
+
+    private R apply(T t, RetryPolicy policy, long maxAttempts, AttemptContext context) throws Exception {
+        var listener = policy.listener();
+        var observed = listener != RetryListener.NOOP;
+        var name = policy.name();
+        var clock = policy.clock();
+        var backoff = policy.backoff().forCall();
+        var start = observed ? clock.nanoTime() : 0L;
+        var attempts = 0;
+        var retryBackoff = -1L;
+        var lastBeforeDeadline = false;
 
         Exception lastException = null;
 
-        while (retryConfig.nbOfRetries() < 1 || currentIteration++ < retryConfig.nbOfRetries()) {
+        while (maxAttempts < 1 || attempts < maxAttempts) {
+            if (cancellationToken != null && cancellationToken.isCancelled()) {
+                throw abort(policy, start, attempts, cancelled(attempts, lastException), "cancellation");
+            }
+            if (deadline != null && deadline.isExpired()) {
+                throw abort(policy, start, attempts, deadlineExceeded(attempts, lastException), "deadline");
+            }
+            var admissionController = policy.admissionController();
+            if (admissionController != null && !admissionController.tryAdmit(attempts > 0, policy.priority())) {
+                throw abort(policy, start, attempts, shed(attempts, lastException), "overload");
+            }
+            attempts++;
+            var attemptStart = 0L;
+            if (observed) {
+                attemptStart = clock.nanoTime();
+                listener.onAttemptStarted(name, attempts);
+            }
+            var attemptEvent = RetryEvents.beginAttempt();
             try {
-                return delegate.apply(t);
+                acquirePermission(policy, attempts);
+                R result;
+                if (context != null) {
+                    context.update(attempts, lastException);
+                    result = contextualDelegate.apply(t, context);
+                } else {
+                    result = delegate.apply(t);
+                }
+                RetryEvents.endAttempt(attemptEvent, name, attempts, null);
+                if (retryBackoff >= 0) {
+                    backoff.record(retryBackoff, true);
+                }
+                if (observed) {
+                    listener.onSuccess(name, attempts, clock.nanoTime() - start);
+                }
+                return result;
             } catch (Exception e) {
                 lastException = e;
-                try {
-                    Thread.sleep(retryBackoff);
-                } catch (InterruptedException e1) {
-                    Thread.currentThread().interrupt();
-                    throw new RuntimeException(e1);
+                RetryEvents.endAttempt(attemptEvent, name, attempts, e);
+                // an attempt denied by the rate limiter tells nothing about the recovery of the downstream
+                if (retryBackoff >= 0 && !(e instanceof RateLimiter.RequestNotPermittedException)) {
+                    backoff.record(retryBackoff, false);
+                }
+                if (observed) {
+                    listener.onAttemptFailed(name, attempts, e, clock.nanoTime() - attemptStart);
+                }
+                if (!policy.isRetryable(e)) {
+                    if (observed) {
+                        listener.onAborted(name, attempts, e, clock.nanoTime() - start);
+                    }
+                    throw e;
+                }
+            }
+            // there is no point in waiting once the last attempt has failed
+            if (attempts == maxAttempts) {
+                break;
+            }
+            var retryAfter = policy.retryAfterMillis(lastException);
+            retryBackoff = retryAfter >= 0 ? retryAfter : backoff.delayMillis(attempts);
+            if (deadline != null && deadline.expiresWithin(retryBackoff, TimeUnit.MILLISECONDS)) {
+                // coming back earlier than suggested would only be turned down
+                if (lastBeforeDeadline || retryAfter >= 0) {
+                    throw abort(policy, start, attempts, deadlineExceeded(attempts, lastException), "deadline");
                 }
+                // the last attempt gets the other half of the time left
+                lastBeforeDeadline = true;
+                retryBackoff = TimeUnit.NANOSECONDS.toMillis(Math.max(0, deadline.remainingNanos() / 2));
+            }
+            if (observed) {
+                listener.onBackoffScheduled(name, attempts, retryBackoff);
+            }
+            var backoffEvent = RetryEvents.beginBackoff();
+            try {
+                if (policy.sleeper().sleep(TimeUnit.MILLISECONDS.toNanos(retryBackoff), cancellationToken)) {
+                    throw abort(policy, start, attempts, cancelled(attempts, lastException), "cancellation");
+                }
+                RetryEvents.endBackoff(backoffEvent, name, attempts, retryBackoff);
+            } catch (InterruptedException e1) {
+                Thread.currentThread().interrupt();
+                var exception = new CancellationToken.CancelledException("Interrupted during the backoff", e1);
+                exception.addSuppressed(lastException);
+                throw abort(policy, start, attempts, exception, "interruption");
             }
         }
+        RetryEvents.exhausted(name, attempts, lastException);
+        if (observed) {
+            listener.onExhausted(name, attempts, lastException, clock.nanoTime() - start);
+        }
         var msg = String.format(
-                "Unable to perform the task within %s retries because: %s",
-                retryConfig.nbOfRetries(), lastException.getMessage());
+                "Unable to perform the task within %s retries because: %s", maxAttempts, lastException.getMessage());
         throw new RetryConfig.MaxRetriesException(msg, lastException);
     }
+
+    /**
+     * @return the policy the next call will follow.
+     */
+    public RetryPolicy policy() {
+        return policySource.get();
+    }
+
+    private static Supplier<RetryPolicy> constant(RetryPolicy policy) {
+        Objects.requireNonNull(policy, "Policy should not be null");
+        return () -> policy;
+    }
+
+    private Deadline.DeadlineExceededException deadlineExceeded(int attempts, Exception lastException) {
+        var msg = lastException == null
+                ? "Deadline exceeded before the first attempt"
+                : String.format(
+                        "Deadline exceeded after %s attempts because: %s", attempts, lastException.getMessage());
+        return new Deadline.DeadlineExceededException(msg, lastException);
+    }
+
+    private CancellationToken.CancelledException cancelled(int attempts, Exception lastException) {
+        var msg = lastException == null
+                ? "Cancelled before the first attempt"
+                : String.format("Cancelled after %s attempts, last failure: %s", attempts, lastException.getMessage());
+        return new CancellationToken.CancelledException(msg, lastException);
+    }
+
+    private AdmissionController.OverloadedException shed(int attempts, Exception lastException) {
+        var msg = lastException == null
+                ? "Shed before the first attempt because of an overload"
+                : String.format("Shed after %s attempts because of an overload, last failure: %s",
+                        attempts, lastException.getMessage());
+        return new AdmissionController.OverloadedException(msg, lastException);
+    }
+
+    /**
+     * Notifies the listener and the recording that the loop stopped before running out of attempts.
+     */
+    private <E extends Exception> E abort(RetryPolicy policy, long start, int attempts, E exception, String reason) {
+        RetryEvents.rejected(policy.name(), attempts + 1, reason);
+        var listener = policy.listener();
+        if (listener != RetryListener.NOOP) {
+            listener.onAborted(policy.name(), attempts, exception, policy.clock().nanoTime() - start);
+        }
+        return exception;
+    }
+
+    private void acquirePermission(RetryPolicy policy, int attempt) throws RateLimiter.RequestNotPermittedException {
+        var rateLimiter = policy.rateLimiter();
+        if (rateLimiter != null) {
+            try {
+                rateLimiter.acquirePermission(policy.priority());
+            } catch (RateLimiter.RequestNotPermittedException e) {
+                RetryEvents.rejected(policy.name(), attempt, "rate limiter");
+                throw e;
+            }
+        }
+    }
 }
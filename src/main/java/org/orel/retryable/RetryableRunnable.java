@@ -3,24 +3,28 @@ package org.orel.retryable;
 import org.orel.RetryConfig;
 import org.orel.operator.FaillibleFunction;
 import org.orel.operator.FaillibleRunnable;
+import org.orel.policy.RetryPolicy;
 
 public class RetryableRunnable implements FaillibleRunnable<Exception> {
-    private final FaillibleRunnable<Exception> delegate;
-
-    private final RetryConfig retryConfig;
+    private final RetryableFunction<Void, Void> retryableFunction;
 
     public RetryableRunnable(FaillibleRunnable<Exception> delegate, RetryConfig retryConfig) {
-        this.retryConfig = retryConfig;
-        this.delegate = delegate;
+        this.retryableFunction = new RetryableFunction<>(asFunction(delegate), retryConfig);
+    }
+
+    public RetryableRunnable(FaillibleRunnable<Exception> delegate, RetryPolicy policy) {
+        this.retryableFunction = new RetryableFunction<>(asFunction(delegate), policy);
     }
 
     @Override
     public void apply() throws Exception {
-        FaillibleFunction<Void, Void, Exception> runnable = ignored -> {
+        retryableFunction.apply(null);
+    }
+
+    private static FaillibleFunction<Void, Void, Exception> asFunction(FaillibleRunnable<Exception> delegate) {
+        return ignored -> {
             delegate.apply();
             return null;
         };
-
-        new RetryableFunction<>(runnable, retryConfig).apply(null);
     }
 }
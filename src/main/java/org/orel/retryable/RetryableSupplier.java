@@ -1,23 +1,57 @@
 package org.orel.retryable;
 
 import org.orel.RetryConfig;
-import org.orel.operator.FaillibleFunction;
+import org.orel.operator.ContextualSupplier;
 import org.orel.operator.FaillibleSupplier;
+import org.orel.policy.RetryPolicy;
 
 public class RetryableSupplier<T> implements FaillibleSupplier<T, Exception> {
+    /**
+     * The supplier retried, or null when built from a {@link ContextualSupplier}.
+     *
+     * @deprecated kept for the subclasses overriding {@link #get()}, which should rather wrap the supplier they pass
+     * to the constructor, since a retryable built per call compiles its configuration every call.
+     */
+    @Deprecated
     protected final FaillibleSupplier<T, Exception> delegate;
 
+    /**
+     * The configuration retrying the supplier, or null when built from a {@link RetryPolicy}.
+     *
+     * @deprecated see {@link #delegate}.
+     */
+    @Deprecated
     protected final RetryConfig retryConfig;
 
+    private final RetryableFunction<Void, T> retryableFunction;
+
     public RetryableSupplier(FaillibleSupplier<T, Exception> delegate, RetryConfig retryConfig) {
+        this.delegate = delegate;
         this.retryConfig = retryConfig;
+        this.retryableFunction = new RetryableFunction<>(ignored -> delegate.get(), retryConfig);
+    }
+
+    public RetryableSupplier(FaillibleSupplier<T, Exception> delegate, RetryPolicy policy) {
         this.delegate = delegate;
+        this.retryConfig = null;
+        this.retryableFunction = new RetryableFunction<>(ignored -> delegate.get(), policy);
+    }
+
+    public RetryableSupplier(ContextualSupplier<T, Exception> delegate, RetryConfig retryConfig) {
+        this.delegate = null;
+        this.retryConfig = retryConfig;
+        this.retryableFunction =
+                new RetryableFunction<Void, T>((ignored, context) -> delegate.get(context), retryConfig);
+    }
+
+    public RetryableSupplier(ContextualSupplier<T, Exception> delegate, RetryPolicy policy) {
+        this.delegate = null;
+        this.retryConfig = null;
+        this.retryableFunction = new RetryableFunction<Void, T>((ignored, context) -> delegate.get(context), policy);
     }
 
     @Override
     public T get() throws Exception {
-        FaillibleFunction<Void, T, Exception> supplier = ignored -> delegate.get();
-
-        return new RetryableFunction<>(supplier, retryConfig).apply(null);
+        return retryableFunction.apply(null);
     }
 }
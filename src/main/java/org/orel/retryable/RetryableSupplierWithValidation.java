@@ -1,7 +1,6 @@
 package org.orel.retryable;
 
 import org.orel.RetryConfig;
-import org.orel.operator.FaillibleFunction;
 import org.orel.operator.FaillibleSupplier;
 
 import java.util.function.Predicate;
@@ -9,23 +8,20 @@ import java.util.function.Predicate;
 import static java.lang.String.format;
 
 public class RetryableSupplierWithValidation<T> extends RetryableSupplier<T> implements FaillibleSupplier<T, Exception> {
-    private final Predicate<T> validator;
 
     public RetryableSupplierWithValidation(
             FaillibleSupplier<T, Exception> delegate, RetryConfig RetryConfig, Predicate<T> validator) {
-        super(delegate, RetryConfig);
-        this.validator = validator;
+        super(validating(delegate, validator), RetryConfig);
     }
 
-    @Override
-    public T get() throws Exception {
-        FaillibleFunction<Void, T, Exception> validatingSupplier = ignored -> {
+    private static <T> FaillibleSupplier<T, Exception> validating(
+            FaillibleSupplier<T, Exception> delegate, Predicate<T> validator) {
+        return () -> {
             T value = delegate.get();
             if (!validator.test(value)) {
                 throw new IllegalStateException(format("Supplied value '%s' doesn't satisfy the condition.", value));
             }
             return value;
         };
-        return new RetryableFunction<>(validatingSupplier, retryConfig).apply(null);
     }
 }
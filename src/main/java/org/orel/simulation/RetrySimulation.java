@@ -0,0 +1,277 @@
+package org.orel.simulation;
+
+import org.orel.limiter.RateLimiter;
+import org.orel.metrics.LatencyHistogram;
+import org.orel.policy.RetryPolicy;
+import org.orel.time.VirtualClock;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Discrete-event simulation of clients calling a {@link ServiceModel} through a {@link RetryPolicy}: calls arrive as a
+ * Poisson process and every attempt, backoff and response is an event on a virtual timeline, so nothing ever sleeps
+ * and millions of calls run in seconds. The same seed always gives the same report. <br><br>
+ *
+ * The policy drives the simulated calls the way it drives a {@link org.orel.retryable.RetryableFunction}: its maximum
+ * number of attempts, backoff and failure classification, and its rate limiter when it has one. Such a limiter should
+ * be built on the {@link #clock()} of the simulation to see the virtual time. The outcomes of the retries are fed back
+ * to the backoff, so an {@link org.orel.policy.AdaptiveBackoff} learns as it would in production.
+ *
+ * <pre>
+ *      SimulationReport report = RetrySimulation.builder( policy, model )
+ *          .calls( 1_000_000 )
+ *          .arrivalRate( 5_000 )
+ *          .build()
+ *          .run();
+ * </pre>
+ */
+public final class RetrySimulation {
+    private static final int ATTEMPT = 0;
+
+    private static final int RESPONSE = 1;
+
+    private final RetryPolicy policy;
+
+    private final ServiceModel model;
+
+    private final long calls;
+
+    private final double arrivalRate;
+
+    private final long seed;
+
+    private final long horizonNanos;
+
+    private final VirtualClock clock;
+
+    private RetrySimulation(Builder builder) {
+        this.policy = builder.policy;
+        this.model = builder.model;
+        this.calls = builder.calls;
+        this.arrivalRate = builder.arrivalRate;
+        this.seed = builder.seed;
+        this.horizonNanos = builder.horizon.toNanos();
+        this.clock = builder.clock;
+    }
+
+    public static Builder builder(RetryPolicy policy, ServiceModel model) {
+        return new Builder(policy, model);
+    }
+
+    public VirtualClock clock() {
+        return clock;
+    }
+
+    /**
+     * Runs the simulation from the current time of its clock, which it leaves at the time of the last event.
+     */
+    public SimulationReport run() {
+        var random = new SplittableRandom(seed);
+        var events = new PriorityQueue<Event>();
+        var latencies = new LatencyHistogram();
+        var rejected = new RateLimiter.RequestNotPermittedException("Simulated rate limiter rejection");
+        var origin = clock.nanoTime();
+        var maxAttempts = policy.isEnabled() ? policy.maxAttempts() : 1;
+        var rateLimiter = policy.rateLimiter();
+        var backoff = policy.backoff();
+
+        long sequence = 0;
+        long arrived = 0;
+        long attempts = 0;
+        long successes = 0;
+        long failures = 0;
+        long latencySum = 0;
+        int inFlight = 0;
+        int maxInFlight = 0;
+        var now = 0L;
+
+        if (calls > 0) {
+            var first = nextArrival(0, random);
+            events.add(new Event(first, sequence++, ATTEMPT, new Call(first)));
+        }
+        while (!events.isEmpty()) {
+            var event = events.poll();
+            now = event.time;
+            if (now > horizonNanos) {
+                break;
+            }
+            clock.advanceTo(origin + now);
+            var call = event.call;
+
+            if (event.kind == ATTEMPT) {
+                if (call.attempts == 0) {
+                    arrived++;
+                    if (arrived < calls) {
+                        var next = nextArrival(now, random);
+                        events.add(new Event(next, sequence++, ATTEMPT, new Call(next)));
+                    }
+                }
+                call.attempts++;
+                ServiceModel.Response response;
+                if (rateLimiter != null && !rateLimiter.tryAcquire()) {
+                    response = new ServiceModel.Response(rejected, 0);
+                } else {
+                    attempts++;
+                    response = model.respond(now, inFlight, random);
+                    inFlight++;
+                    maxInFlight = Math.max(maxInFlight, inFlight);
+                }
+                var responseEvent = new Event(now + response.latencyNanos(), sequence++, RESPONSE, call);
+                responseEvent.response = response;
+                events.add(responseEvent);
+                continue;
+            }
+
+            var response = event.response;
+            if (response.failure() != rejected) {
+                inFlight--;
+                if (call.attempts > 1) {
+                    backoff.record(call.lastDelayMillis, response.isSuccess());
+                }
+            }
+            if (!response.isSuccess()
+                    && policy.isRetryable(response.failure())
+                    && (maxAttempts < 1 || call.attempts < maxAttempts)) {
+                call.lastDelayMillis = policy.delayMillis(call.attempts, response.failure());
+                var delayNanos = TimeUnit.MILLISECONDS.toNanos(call.lastDelayMillis);
+                events.add(new Event(now + delayNanos, sequence++, ATTEMPT, call));
+                continue;
+            }
+            if (response.isSuccess()) {
+                successes++;
+            } else {
+                failures++;
+            }
+            var latency = now - call.start;
+            latencies.record(latency);
+            latencySum += latency;
+        }
+
+        var finished = successes + failures;
+        return new SimulationReport(
+                arrived,
+                attempts,
+                successes,
+                failures,
+                arrived - finished,
+                maxInFlight,
+                Duration.ofNanos(clock.nanoTime() - origin),
+                finished == 0 ? 0 : latencySum / finished,
+                latencies.valueAt(0.5),
+                latencies.valueAt(0.99),
+                latencies.valueAt(0.999));
+    }
+
+    private long nextArrival(long now, SplittableRandom random) {
+        var interval = -Math.log(1.0 - random.nextDouble()) / arrivalRate;
+        return now + (long) (interval * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private static final class Call {
+        final long start;
+
+        int attempts;
+
+        long lastDelayMillis;
+
+        Call(long start) {
+            this.start = start;
+        }
+    }
+
+    private static final class Event implements Comparable<Event> {
+        final long time;
+
+        // keeps the order of simultaneous events, and so the simulation, deterministic
+        final long sequence;
+
+        final int kind;
+
+        final Call call;
+
+        ServiceModel.Response response;
+
+        Event(long time, long sequence, int kind, Call call) {
+            this.time = time;
+            this.sequence = sequence;
+            this.kind = kind;
+            this.call = call;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            var byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    public static final class Builder {
+        private final RetryPolicy policy;
+
+        private final ServiceModel model;
+
+        private long calls = 10_000;
+
+        private double arrivalRate = 100;
+
+        private long seed = 42;
+
+        private Duration horizon = Duration.ofNanos(Long.MAX_VALUE);
+
+        private VirtualClock clock = new VirtualClock();
+
+        private Builder(RetryPolicy policy, ServiceModel model) {
+            this.policy = Objects.requireNonNull(policy, "Policy should not be null");
+            this.model = Objects.requireNonNull(model, "Model should not be null");
+        }
+
+        public Builder calls(long calls) {
+            if (calls < 0) {
+                throw new IllegalArgumentException("Calls should not be negative");
+            }
+            this.calls = calls;
+            return this;
+        }
+
+        /**
+         * The mean number of calls arriving per second of virtual time.
+         */
+        public Builder arrivalRate(double callsPerSecond) {
+            if (!(callsPerSecond > 0)) {
+                throw new IllegalArgumentException("Arrival rate should be positive");
+            }
+            this.arrivalRate = callsPerSecond;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Stops the simulation at this virtual time, which bounds it when the policy retries indefinitely.
+         */
+        public Builder horizon(Duration horizon) {
+            Objects.requireNonNull(horizon, "Horizon should not be null");
+            if (horizon.isNegative()) {
+                throw new IllegalArgumentException("Horizon should not be negative");
+            }
+            this.horizon = horizon;
+            return this;
+        }
+
+        public Builder clock(VirtualClock clock) {
+            this.clock = Objects.requireNonNull(clock, "Clock should not be null");
+            return this;
+        }
+
+        public RetrySimulation build() {
+            return new RetrySimulation(this);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.orel.simulation;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Scripts how the simulated service answers an attempt, from the virtual time, the number of attempts it is already
+ * serving and the random source of the simulation. Models are composed from the factories, e.g.
+ *
+ * <pre>
+ *      ServiceModel model = ServiceModel.failing( 0.01, Duration.ofMillis( 20 ) )
+ *          .withOutage( Duration.ofSeconds( 10 ), Duration.ofSeconds( 40 ) )
+ *          .withCapacity( 200 );
+ * </pre>
+ */
+@FunctionalInterface
+public interface ServiceModel {
+
+    /**
+     * @param nowNanos the virtual time elapsed since the start of the simulation.
+     * @param inFlight the number of attempts being served, not counting this one.
+     */
+    Response respond(long nowNanos, int inFlight, SplittableRandom random);
+
+    /**
+     * Fails each attempt independently with the given probability, answering after the given latency.
+     */
+    static ServiceModel failing(double failureProbability, Duration latency) {
+        if (!(failureProbability >= 0 && failureProbability <= 1)) {
+            throw new IllegalArgumentException("Failure probability should be between 0 and 1");
+        }
+        var success = Response.success(latency);
+        var failure = Response.failure(new SimulatedFailure("failure"), latency);
+        return (nowNanos, inFlight, random) -> random.nextDouble() < failureProbability ? failure : success;
+    }
+
+    /**
+     * Fails every attempt made between the two offsets from the start of the simulation, after the same latency.
+     */
+    default ServiceModel withOutage(Duration from, Duration to) {
+        Objects.requireNonNull(from, "From should not be null");
+        Objects.requireNonNull(to, "To should not be null");
+        var fromNanos = from.toNanos();
+        var toNanos = to.toNanos();
+        var failure = new SimulatedFailure("outage");
+        return (nowNanos, inFlight, random) -> {
+            var response = respond(nowNanos, inFlight, random);
+            if (nowNanos >= fromNanos && nowNanos < toNanos) {
+                return new Response(failure, response.latencyNanos());
+            }
+            return response;
+        };
+    }
+
+    /**
+     * Fails every attempt made during the first part of each period, as a dependency having short outages
+     * regularly: an attempt failing in an outage succeeds when retried after the rest of the outage.
+     */
+    default ServiceModel withPeriodicOutages(Duration period, Duration length) {
+        Objects.requireNonNull(period, "Period should not be null");
+        Objects.requireNonNull(length, "Length should not be null");
+        if (period.isNegative() || period.isZero() || length.compareTo(period) > 0) {
+            throw new IllegalArgumentException("Period should be positive and not shorter than the outages");
+        }
+        var periodNanos = period.toNanos();
+        var lengthNanos = length.toNanos();
+        var failure = new SimulatedFailure("outage");
+        return (nowNanos, inFlight, random) -> {
+            var response = respond(nowNanos, inFlight, random);
+            if (nowNanos % periodNanos < lengthNanos) {
+                return new Response(failure, response.latencyNanos());
+            }
+            return response;
+        };
+    }
+
+    /**
+     * Rejects the attempts right away once the service is serving the given number of attempts, which is how retries
+     * amplify an overload.
+     */
+    default ServiceModel withCapacity(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Capacity should be positive");
+        }
+        var rejected = new Response(new SimulatedFailure("overloaded"), 0);
+        return (nowNanos, inFlight, random) -> inFlight >= maxInFlight ? rejected : respond(nowNanos, inFlight, random);
+    }
+
+    /**
+     * @param failure null for a successful attempt.
+     */
+    record Response(Exception failure, long latencyNanos) {
+
+        public Response {
+            if (latencyNanos < 0) {
+                throw new IllegalArgumentException("Latency should not be negative");
+            }
+        }
+
+        public static Response success(Duration latency) {
+            return new Response(null, latency.toNanos());
+        }
+
+        public static Response failure(Exception failure, Duration latency) {
+            Objects.requireNonNull(failure, "Failure should not be null");
+            return new Response(failure, latency.toNanos());
+        }
+
+        public boolean isSuccess() {
+            return failure == null;
+        }
+    }
+
+    /**
+     * Shared by all the attempts failing for the same reason, so it does not fill in a stack trace.
+     */
+    class SimulatedFailure extends Exception {
+
+        public SimulatedFailure(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
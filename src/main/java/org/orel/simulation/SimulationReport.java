@@ -0,0 +1,34 @@
+package org.orel.simulation;
+
+import java.time.Duration;
+
+/**
+ * The outcome of a {@link RetrySimulation}. The latencies are the ones of whole calls, retries and backoffs included,
+ * whether they eventually succeeded or not.
+ *
+ * @param unfinished the calls still retrying when the simulation reached its horizon.
+ */
+public record SimulationReport(
+        long calls,
+        long attempts,
+        long successes,
+        long failures,
+        long unfinished,
+        int maxInFlight,
+        Duration elapsed,
+        long meanLatencyNanos,
+        long p50LatencyNanos,
+        long p99LatencyNanos,
+        long p999LatencyNanos) {
+
+    /**
+     * How many attempts the service received per call.
+     */
+    public double loadAmplification() {
+        return calls == 0 ? 0.0 : (double) attempts / calls;
+    }
+
+    public double successRate() {
+        return calls == 0 ? 0.0 : (double) successes / calls;
+    }
+}
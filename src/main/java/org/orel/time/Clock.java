@@ -0,0 +1,16 @@
+package org.orel.time;
+
+/**
+ * The monotonic time source of the retry, deadline and rate limiting code, {@link #SYSTEM} unless a
+ * {@link VirtualClock} is plugged in to run them on simulated time.
+ */
+@FunctionalInterface
+public interface Clock {
+
+    Clock SYSTEM = System::nanoTime;
+
+    /**
+     * Same contract as {@link System#nanoTime()}: only differences between two values are meaningful.
+     */
+    long nanoTime();
+}
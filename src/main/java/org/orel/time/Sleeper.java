@@ -0,0 +1,43 @@
+package org.orel.time;
+
+import org.orel.CancellationToken;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits on behalf of the retry and rate limiting code, {@link #THREAD} unless a {@link VirtualClock} is plugged in.
+ */
+@FunctionalInterface
+public interface Sleeper {
+
+    Sleeper THREAD = new Sleeper() {
+        @Override
+        public void sleep(long nanos) throws InterruptedException {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        }
+
+        @Override
+        public boolean sleep(long nanos, CancellationToken cancellationToken) throws InterruptedException {
+            if (cancellationToken == null) {
+                sleep(nanos);
+                return false;
+            }
+            return cancellationToken.await(nanos, TimeUnit.NANOSECONDS);
+        }
+    };
+
+    void sleep(long nanos) throws InterruptedException;
+
+    /**
+     * Sleeps unless the token, which may be null, is cancelled first.
+     *
+     * @return true if the token has been cancelled.
+     */
+    default boolean sleep(long nanos, CancellationToken cancellationToken) throws InterruptedException {
+        if (cancellationToken != null && cancellationToken.isCancelled()) {
+            return true;
+        }
+        sleep(nanos);
+        return cancellationToken != null && cancellationToken.isCancelled();
+    }
+}
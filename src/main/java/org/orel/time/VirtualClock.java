@@ -0,0 +1,53 @@
+package org.orel.time;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulated time that only moves when it is told to: sleeping on it advances it right away instead of blocking, so
+ * minutes of backoff run in microseconds and always in the same way. <br><br>
+ *
+ * It is meant for a single logical timeline, e.g. a test or a {@link org.orel.simulation.RetrySimulation}: threads
+ * sleeping on it concurrently each move the shared time forward.
+ */
+public final class VirtualClock implements Clock, Sleeper {
+    private final AtomicLong nanos;
+
+    public VirtualClock() {
+        this(0);
+    }
+
+    public VirtualClock(long startNanos) {
+        this.nanos = new AtomicLong(startNanos);
+    }
+
+    @Override
+    public long nanoTime() {
+        return nanos.get();
+    }
+
+    @Override
+    public void sleep(long nanos) {
+        advance(nanos);
+    }
+
+    public void advance(Duration duration) {
+        Objects.requireNonNull(duration, "Duration should not be null");
+        advance(duration.toNanos());
+    }
+
+    /**
+     * Moves the time to the given value, unless it is already past it.
+     */
+    public void advanceTo(long nanoTime) {
+        nanos.accumulateAndGet(nanoTime, Math::max);
+    }
+
+    private void advance(long delta) {
+        if (delta < 0) {
+            throw new IllegalArgumentException("Time cannot go backwards");
+        }
+        nanos.addAndGet(delta);
+    }
+}
@@ -0,0 +1,83 @@
+package org.orel;
+
+import org.junit.jupiter.api.Test;
+import org.orel.monad.Failure;
+import org.orel.monad.Try;
+import org.orel.operator.FaillibleSupplier;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class CancellationTokenTest {
+
+    private static final Supplier<Long> DELAY = () -> 10L;
+
+    @Test
+    void cancelShouldWakeUpThePendingBackoff() throws Exception {
+        // given
+        var token = new CancellationToken();
+        var retryConfig = new RetryConfig(() -> 10_000L, 5).withCancellationToken(token);
+        FaillibleSupplier<Integer, Exception> supplier = mock(FaillibleSupplier.class);
+        var exceptionToThrow = new Exception("failed");
+        doThrow(exceptionToThrow).when(supplier).get();
+        var scheduler = Executors.newSingleThreadScheduledExecutor();
+        scheduler.schedule(token::cancel, 50, TimeUnit.MILLISECONDS);
+
+        // when
+        var start = System.nanoTime();
+        var result = Try.run(supplier, retryConfig);
+        scheduler.shutdown();
+
+        // then
+        assertThat(System.nanoTime() - start).isLessThan(Duration.ofSeconds(5).toNanos());
+        verify(supplier, times(1)).get();
+        var exception = ((Failure<Integer>) result).exception();
+        assertThat(exception).isInstanceOf(CancellationToken.CancelledException.class);
+        assertThat(exception.getCause()).isEqualTo(exceptionToThrow);
+    }
+
+    @Test
+    void shouldNotAttemptOnceCancelled() {
+        // given
+        var token = new CancellationToken();
+        token.cancel();
+        var retryConfig = new RetryConfig(DELAY, 3).withCancellationToken(token);
+        FaillibleSupplier<Integer, Exception> supplier = mock(FaillibleSupplier.class);
+
+        // when
+        var result = Try.run(supplier, retryConfig);
+
+        // then
+        assertThat(((Failure<Integer>) result).exception()).isInstanceOf(CancellationToken.CancelledException.class);
+        verifyNoInteractions(supplier);
+    }
+
+    @Test
+    void shouldRunCallbacksOnce() {
+        // given
+        var token = new CancellationToken();
+        var calls = new AtomicInteger();
+        token.onCancel(calls::incrementAndGet);
+        var removed = token.onCancel(calls::incrementAndGet);
+        removed.close();
+
+        // when
+        token.cancel();
+        token.cancel();
+        token.onCancel(calls::incrementAndGet);
+
+        // then
+        assertThat(token.isCancelled()).isTrue();
+        assertThat(calls.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,77 @@
+package org.orel;
+
+import org.junit.jupiter.api.Test;
+import org.orel.monad.Failure;
+import org.orel.monad.Try;
+import org.orel.operator.FaillibleFunction;
+import org.orel.operator.FaillibleSupplier;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class DeadlineTest {
+
+    private static final Supplier<Long> DELAY = () -> 10L;
+
+    @Test
+    void shouldShortenTheBackoffForALastAttemptBeforeTheDeadline() throws Exception {
+        // given
+        var retryConfig = new RetryConfig(() -> 5_000L, 5).withDeadline(Deadline.after(Duration.ofSeconds(1)));
+        FaillibleSupplier<Integer, Exception> supplier = mock(FaillibleSupplier.class);
+        var exceptionToThrow = new Exception("failed");
+        doThrow(exceptionToThrow).when(supplier).get();
+
+        // when
+        var start = System.nanoTime();
+        var result = Try.run(supplier, retryConfig);
+
+        // then
+        assertThat(System.nanoTime() - start).isLessThan(Duration.ofSeconds(1).toNanos());
+        verify(supplier, times(2)).get();
+        var exception = ((Failure<Integer>) result).exception();
+        assertThat(exception).isInstanceOf(Deadline.DeadlineExceededException.class);
+        assertThat(exception.getCause()).isEqualTo(exceptionToThrow);
+    }
+
+    @Test
+    void chainShouldShareOneDeadline() throws Exception {
+        // given
+        var retryConfig = new RetryConfig(DELAY, 0).withDeadline(Deadline.after(Duration.ofMillis(100)));
+        FaillibleFunction<Integer, Integer, Exception> failing = mock(FaillibleFunction.class);
+        doThrow(new Exception("failed")).when(failing).apply(3);
+        FaillibleFunction<Integer, Integer, Exception> next = mock(FaillibleFunction.class);
+        doReturn(5).when(next).apply(4);
+
+        // when
+        var result = Try.run(() -> 2, retryConfig)
+                .thenApply(x -> x + 1, retryConfig)
+                .thenApply(failing, retryConfig)
+                .thenApply(next, retryConfig);
+
+        // then
+        assertThat(((Failure<Integer>) result).exception()).isInstanceOf(Deadline.DeadlineExceededException.class);
+        verifyNoInteractions(next);
+    }
+
+    @Test
+    void shouldFailBeforeFirstAttemptOnceExpired() {
+        // given
+        var retryConfig = new RetryConfig(DELAY, 3).withDeadline(Deadline.after(Duration.ZERO));
+        FaillibleSupplier<Integer, Exception> supplier = mock(FaillibleSupplier.class);
+
+        // when
+        var result = Try.run(supplier, retryConfig);
+
+        // then
+        assertThat(((Failure<Integer>) result).exception()).isInstanceOf(Deadline.DeadlineExceededException.class);
+        verifyNoInteractions(supplier);
+    }
+}
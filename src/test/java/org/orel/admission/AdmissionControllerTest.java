@@ -0,0 +1,171 @@
+package org.orel.admission;
+
+import org.junit.jupiter.api.Test;
+import org.orel.monad.Failure;
+import org.orel.monad.Try;
+import org.orel.operator.FaillibleSupplier;
+import org.orel.policy.Priority;
+import org.orel.policy.RetryPolicy;
+import org.orel.time.VirtualClock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class AdmissionControllerTest {
+
+    private static final Duration TARGET = Duration.ofMillis(5);
+
+    private static final Duration INTERVAL = Duration.ofMillis(100);
+
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    void shouldAdmitEverythingWhileTheQueueKeepsUp() {
+        // given
+        var clock = new VirtualClock();
+        var controller = new AdmissionController(TARGET, INTERVAL, clock);
+
+        // when
+        controller.recordSojourn(SLOW);
+        controller.recordSojourn(TimeUnit.MILLISECONDS.toNanos(1));
+        clock.advance(INTERVAL);
+
+        // then
+        assertThat(controller.tryAdmit(true)).isTrue();
+        assertThat(controller.isOverloaded()).isFalse();
+        assertThat(controller.lastMinSojournNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    @Test
+    void shouldShedRetriesBeforeFirstAttempts() {
+        // given
+        var clock = new VirtualClock();
+        var controller = overloaded(clock);
+
+        // when
+        var retry = controller.tryAdmit(true);
+        var firstShed = controller.tryAdmit(false);
+        var firstAdmitted = controller.tryAdmit(false);
+        controller.recordSojourn(SLOW);
+        clock.advance(INTERVAL);
+        var secondShed = controller.tryAdmit(false);
+
+        // then
+        assertThat(retry).isFalse();
+        assertThat(firstShed).isFalse();
+        assertThat(firstAdmitted).isTrue();
+        assertThat(secondShed).isFalse();
+        assertThat(controller.shedCount()).isEqualTo(3L);
+    }
+
+    @Test
+    void shouldShedTheLowerClassesFirst() {
+        // given
+        var clock = new VirtualClock();
+        var controller = overloaded(clock);
+
+        // when
+        var background = controller.tryAdmit(false, Priority.BACKGROUND);
+        var critical = controller.tryAdmit(false, Priority.CRITICAL);
+        var criticalRetryShed = controller.tryAdmit(true, Priority.CRITICAL);
+        var criticalRetryAdmitted = controller.tryAdmit(true, Priority.CRITICAL);
+
+        // then
+        assertThat(background).isFalse();
+        assertThat(critical).isTrue();
+        assertThat(criticalRetryShed).isFalse();
+        assertThat(criticalRetryAdmitted).isTrue();
+        assertThat(controller.shedCount()).isEqualTo(2L);
+    }
+
+    @Test
+    void shouldRecoverOnceTheQueueingDelayDrops() {
+        // given
+        var clock = new VirtualClock();
+        var controller = overloaded(clock);
+
+        // when
+        controller.recordSojourn(TimeUnit.MILLISECONDS.toNanos(1));
+        clock.advance(INTERVAL);
+
+        // then
+        assertThat(controller.isOverloaded()).isFalse();
+        assertThat(controller.tryAdmit(true)).isTrue();
+    }
+
+    @Test
+    void retryLoopShouldStopWhenItsRetryIsShed() throws Exception {
+        // given
+        var clock = new VirtualClock();
+        var controller = overloaded(clock);
+        var policy = RetryPolicy.builder("test").maxAttempts(5).admissionController(controller).build();
+        FaillibleSupplier<Integer, Exception> supplier = mock(FaillibleSupplier.class);
+        var exceptionToThrow = new Exception("failed");
+        doThrow(exceptionToThrow).when(supplier).get();
+        // the first attempt of the overload is shed right away
+        controller.tryAdmit(false);
+
+        // when
+        var result = Try.run(supplier, policy);
+
+        // then
+        var exception = ((Failure<Integer>) result).exception();
+        assertThat(exception).isInstanceOf(AdmissionController.OverloadedException.class);
+        assertThat(exception.getCause()).isEqualTo(exceptionToThrow);
+        verify(supplier, times(1)).get();
+    }
+
+    @Test
+    void submitShouldMeasureTheQueueingDelay() throws Exception {
+        // given
+        var controller = new AdmissionController(TARGET, INTERVAL);
+        var executor = Executors.newSingleThreadExecutor();
+        var policy = RetryPolicy.builder("test").build();
+
+        // when
+        var result = controller.submit(executor, () -> 1, policy).get(1, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // then
+        assertThat(result.get()).isEqualTo(1);
+        assertThat(controller.isOverloaded()).isFalse();
+    }
+
+    @Test
+    void submitShouldDecideOnceOnTheFirstAttemptOfAPolicyWithTheController() {
+        // given
+        var clock = new VirtualClock();
+        var controller = overloaded(clock);
+        var policy = RetryPolicy.builder("test").admissionController(controller).build();
+        var queue = new ArrayList<Runnable>();
+
+        // when
+        var shed = controller.submit(queue::add, () -> 1, policy);
+        var admitted = controller.submit(queue::add, () -> 2, policy);
+        var queuedBeforeRunning = !shed.isDone();
+        queue.forEach(Runnable::run);
+
+        // then
+        assertThat(queuedBeforeRunning).isTrue();
+        assertThat(((Failure<Integer>) shed.join()).exception())
+                .isInstanceOf(AdmissionController.OverloadedException.class);
+        assertThat(admitted.join().get()).isEqualTo(2);
+        assertThat(controller.shedCount()).isEqualTo(1L);
+    }
+
+    private static AdmissionController overloaded(VirtualClock clock) {
+        var controller = new AdmissionController(TARGET, INTERVAL, clock);
+        controller.recordSojourn(SLOW);
+        clock.advance(INTERVAL);
+        assertThat(controller.isOverloaded()).isTrue();
+        return controller;
+    }
+}
@@ -0,0 +1,171 @@
+package org.orel.batch;
+
+import org.junit.jupiter.api.Test;
+import org.orel.RetryConfig;
+import org.orel.monad.Failure;
+import org.orel.monad.Try;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BatchLoaderTest {
+
+    private static final Supplier<Long> DELAY = () -> 10L;
+
+    @Test
+    void shouldDispatchFullBatchWithoutWaiting() {
+        // given
+        var batches = new CopyOnWriteArrayList<List<Integer>>();
+        var loader = Try.batch(
+                (List<Integer> keys) -> {
+                    batches.add(keys);
+                    return keys.stream().collect(Collectors.toMap(Function.identity(), x -> x * 2));
+                },
+                BatchSpec.of(3, Duration.ofMinutes(1)));
+
+        // when
+        var results = List.of(loader.loadAsync(1), loader.loadAsync(2), loader.loadAsync(3));
+
+        // then
+        assertThat(results.stream().map(CompletableFuture::join).collect(Collectors.toList()))
+                .containsExactly(Try.success(2), Try.success(4), Try.success(6));
+        assertThat(batches).containsExactly(List.of(1, 2, 3));
+    }
+
+    @Test
+    void shouldFlushIncompleteBatchAfterMaxDelay() {
+        // given
+        var calls = new AtomicInteger();
+        var loader = Try.batch(
+                (List<Integer> keys) -> {
+                    calls.incrementAndGet();
+                    return keys.stream().collect(Collectors.toMap(Function.identity(), x -> x * 2));
+                },
+                BatchSpec.of(100, Duration.ofMillis(20)));
+
+        // when
+        var futures = new ArrayList<CompletableFuture<Try<Integer>>>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(loader.loadAsync(i % 5));
+        }
+
+        // then
+        assertThat(futures.get(7).join()).isEqualTo(Try.success(4));
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRetryBatchAndFanOutItsFailure() {
+        // given
+        var calls = new AtomicInteger();
+        BatchLoader<Integer, Integer> loader = Try.batch(
+                keys -> {
+                    calls.incrementAndGet();
+                    throw new Exception("failed");
+                },
+                new RetryConfig(DELAY, 2),
+                BatchSpec.of(2, Duration.ofMinutes(1)));
+
+        // when
+        var first = loader.loadAsync(1);
+        var second = loader.loadAsync(2);
+
+        // then
+        assertThat(((Failure<Integer>) first.join()).exception()).isInstanceOf(RetryConfig.MaxRetriesException.class);
+        assertThat(second.join()).isEqualTo(first.join());
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldFailKeysMissingFromBatchResult() {
+        // given
+        var loader = Try.batch((List<Integer> keys) -> Map.of(1, "one"), BatchSpec.of(2, Duration.ofMinutes(1)));
+
+        // when
+        var present = loader.loadAsync(1);
+        var missing = loader.loadAsync(2);
+
+        // then
+        assertThat(present.join()).isEqualTo(Try.success("one"));
+        assertThat(((Failure<String>) missing.join()).exception()).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void shouldFailWaitingCallersWhenBatchThrowsAnError() {
+        // given
+        var error = new LinkageError("broken");
+        BatchLoader<Integer, Integer> loader = Try.batch(
+                keys -> {
+                    throw error;
+                },
+                BatchSpec.of(2, Duration.ofMinutes(1)));
+
+        // when
+        var first = loader.loadAsync(1);
+        var second = loader.loadAsync(2);
+
+        // then
+        assertThat(assertThrows(CompletionException.class, first::join).getCause()).isEqualTo(error);
+        assertThat(assertThrows(CompletionException.class, second::join).getCause()).isEqualTo(error);
+    }
+
+    @Test
+    void shouldFlushRightAwayWhenTheSchedulerRejectsTheTimer() {
+        // given
+        var scheduler = Executors.newSingleThreadScheduledExecutor();
+        scheduler.shutdown();
+        var loader = Try.batch(
+                (List<Integer> keys) -> keys.stream().collect(Collectors.toMap(Function.identity(), x -> x * 2)),
+                BatchSpec.of(100, Duration.ofMinutes(1)).withScheduler(scheduler));
+
+        // when
+        var first = loader.loadAsync(1);
+        var second = loader.loadAsync(2);
+
+        // then
+        assertThat(first.join()).isEqualTo(Try.success(2));
+        assertThat(second.join()).isEqualTo(Try.success(4));
+    }
+
+    @Test
+    void shouldDispatchOnTheCallingThreadWhenTheDispatchExecutorRejectsTheBatch() {
+        // given
+        var threads = new CopyOnWriteArrayList<Thread>();
+        Executor rejecting = task -> {
+            throw new RejectedExecutionException("saturated");
+        };
+        var loader = Try.batch(
+                (List<Integer> keys) -> {
+                    threads.add(Thread.currentThread());
+                    return keys.stream().collect(Collectors.toMap(Function.identity(), x -> x * 2));
+                },
+                BatchSpec.of(2, Duration.ofMillis(20)).withDispatchExecutor(rejecting));
+
+        // when
+        var full = List.of(loader.loadAsync(1), loader.loadAsync(2));
+        var partial = loader.apply(3);
+
+        // then
+        assertThat(full.get(0).join()).isEqualTo(Try.success(2));
+        assertThat(full.get(1).join()).isEqualTo(Try.success(4));
+        assertThat(partial).isEqualTo(Try.success(6));
+        assertThat(threads.get(0)).isEqualTo(Thread.currentThread());
+        assertThat(threads.size()).isEqualTo(2);
+    }
+}
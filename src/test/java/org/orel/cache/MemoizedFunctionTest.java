@@ -0,0 +1,156 @@
+package org.orel.cache;
+
+import org.junit.jupiter.api.Test;
+import org.orel.RetryConfig;
+import org.orel.monad.Failure;
+import org.orel.monad.Try;
+import org.orel.operator.FaillibleFunction;
+import org.orel.time.VirtualClock;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class MemoizedFunctionTest {
+
+    private static final Supplier<Long> DELAY = () -> 10L;
+
+    @Test
+    void shouldComputeEachKeyOnce() throws Exception {
+        // given
+        FaillibleFunction<Integer, Integer, Exception> function = mock(FaillibleFunction.class);
+        doReturn(4).when(function).apply(2);
+        var memoized = Try.memoize(function, CacheSpec.maximumSize(10));
+
+        // when
+        var first = memoized.apply(2);
+        var second = memoized.apply(2);
+
+        // then
+        verify(function, times(1)).apply(2);
+        assertThat(first).isEqualTo(Try.success(4));
+        assertThat(second).isEqualTo(Try.success(4));
+        assertThat(memoized.stats()).isEqualTo(new CacheStats(1, 1, 0, 0));
+    }
+
+    @Test
+    void shouldLoadAgainAfterAnError() throws Exception {
+        // given
+        FaillibleFunction<Integer, Integer, Exception> function = mock(FaillibleFunction.class);
+        doThrow(new LinkageError("broken")).doReturn(4).when(function).apply(2);
+        var memoized = Try.memoize(function, CacheSpec.maximumSize(10));
+
+        // when
+        var error = assertThrows(LinkageError.class, () -> memoized.apply(2));
+        var second = memoized.apply(2);
+
+        // then
+        assertThat(error.getMessage()).isEqualTo("broken");
+        assertThat(second).isEqualTo(Try.success(4));
+        assertThat(memoized.estimatedSize()).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldNotCacheFailuresByDefault() throws Exception {
+        // given
+        FaillibleFunction<Integer, Integer, Exception> function = mock(FaillibleFunction.class);
+        doThrow(new Exception("failed")).doReturn(4).when(function).apply(2);
+        var memoized = Try.memoize(function, CacheSpec.maximumSize(10));
+
+        // when
+        var first = memoized.apply(2);
+        var second = memoized.apply(2);
+
+        // then
+        verify(function, times(2)).apply(2);
+        assertThat(first.isSuccess()).isFalse();
+        assertThat(second).isEqualTo(Try.success(4));
+    }
+
+    @Test
+    void shouldCacheFailuresDuringNegativeTtl() throws Exception {
+        // given
+        FaillibleFunction<Integer, Integer, Exception> function = mock(FaillibleFunction.class);
+        doThrow(new Exception("failed")).when(function).apply(2);
+        var cacheSpec = CacheSpec.maximumSize(10).withNegativeTtl(Duration.ofMinutes(1));
+        var memoized = Try.memoize(function, new RetryConfig(DELAY, 2), cacheSpec);
+
+        // when
+        var first = memoized.apply(2);
+        var second = memoized.apply(2);
+
+        // then
+        verify(function, times(2)).apply(2);
+        assertThat(second).isEqualTo(first);
+        assertThat(((Failure<Integer>) second).exception())
+                .isInstanceOf(RetryConfig.MaxRetriesException.class);
+    }
+
+    @Test
+    void shouldRecomputeExpiredEntries() throws Exception {
+        // given
+        var calls = new AtomicInteger();
+        var clock = new VirtualClock();
+        var cacheSpec = CacheSpec.maximumSize(10).withExpireAfterWrite(Duration.ofMillis(20)).withClock(clock);
+        var memoized = Try.memoize((Integer x) -> x + calls.incrementAndGet(), cacheSpec);
+
+        // when
+        var first = memoized.apply(1);
+        clock.advance(Duration.ofMillis(40));
+        var second = memoized.apply(1);
+
+        // then
+        assertThat(first).isEqualTo(Try.success(2));
+        assertThat(second).isEqualTo(Try.success(3));
+    }
+
+    @Test
+    void shouldEvictOneOffKeysBeforeReusedOnes() {
+        // given
+        var memoized = Try.memoize((Integer x) -> x * 2, CacheSpec.maximumSize(5));
+        memoized.apply(0);
+        memoized.apply(0);
+
+        // when
+        for (int i = 1; i <= 10; i++) {
+            memoized.apply(i);
+        }
+
+        // then
+        assertThat(memoized.estimatedSize()).isEqualTo(5);
+        assertThat(memoized.stats().evictionCount()).isEqualTo(6);
+        assertThat(memoized.apply(0)).isEqualTo(Try.success(0));
+        assertThat(memoized.stats().hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldServeStaleValueWhileRefreshing() throws Exception {
+        // given
+        var calls = new AtomicInteger();
+        var clock = new VirtualClock();
+        var cacheSpec = CacheSpec.maximumSize(10)
+                .withRefreshAfterWrite(Duration.ofMillis(10))
+                .withRefreshExecutor(Runnable::run)
+                .withClock(clock);
+        var memoized = Try.memoize((Integer x) -> calls.incrementAndGet(), cacheSpec);
+        memoized.apply(1);
+        clock.advance(Duration.ofMillis(20));
+
+        // when
+        var stale = memoized.apply(1);
+        var refreshed = memoized.apply(1);
+
+        // then
+        assertThat(stale).isEqualTo(Try.success(1));
+        assertThat(refreshed).isEqualTo(Try.success(2));
+        assertThat(memoized.stats().refreshCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,118 @@
+package org.orel.failover;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.orel.RetryConfig;
+import org.orel.monad.Try;
+import org.orel.operator.FaillibleFunction;
+import org.orel.operator.FaillibleSupplier;
+import org.orel.policy.RetryPolicy;
+import org.orel.time.VirtualClock;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class FailoverFunctionTest {
+
+    private static final Supplier<Long> DELAY = () -> 10L;
+
+    @ParameterizedTest
+    @EnumSource(SelectionStrategy.class)
+    void shouldMoveToAnotherTargetOnRetry(SelectionStrategy selectionStrategy) throws Exception {
+        // given
+        FaillibleFunction<Integer, Integer, Exception> failing = mock(FaillibleFunction.class);
+        FaillibleFunction<Integer, Integer, Exception> healthy = mock(FaillibleFunction.class);
+        doThrow(new Exception("failed")).when(failing).apply(2);
+        doReturn(4).when(healthy).apply(2);
+        var failover = new FailoverFunction<>(List.of(failing, healthy), selectionStrategy, new RetryConfig(DELAY, 2));
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            assertThat(Try.of(failover).apply(2)).isEqualTo(Try.success(4));
+        }
+
+        // then
+        var stats = failover.stats();
+        assertThat(stats.get(1).successRate()).isEqualTo(1.0);
+        assertThat(stats.get(0).outstanding()).isEqualTo(0);
+        assertThat(stats.get(1).outstanding()).isEqualTo(0);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SelectionStrategy.class)
+    void shouldAlternateTargetsUntilRetriesAreExhausted(SelectionStrategy selectionStrategy) throws Exception {
+        // given
+        FaillibleSupplier<Integer, Exception> first = mock(FaillibleSupplier.class);
+        FaillibleSupplier<Integer, Exception> second = mock(FaillibleSupplier.class);
+        doThrow(new Exception("failed")).when(first).get();
+        doThrow(new Exception("failed")).when(second).get();
+        var failover = new FailoverSupplier<>(List.of(first, second), selectionStrategy, new RetryConfig(DELAY, 4));
+
+        // when
+        var thrownException = assertThrows(Exception.class, failover::get);
+
+        // then
+        assertThat(thrownException).isInstanceOf(RetryConfig.MaxRetriesException.class);
+        verify(first, times(2)).get();
+        verify(second, times(2)).get();
+        assertThat(failover.stats().get(0).successRate()).isLessThan(1.0);
+        assertThat(failover.stats().get(1).successRate()).isLessThan(1.0);
+    }
+
+    @Test
+    void shouldMeasureTheLatenciesOnTheClockOfThePolicy() throws Exception {
+        // given
+        var clock = new VirtualClock();
+        var policy = RetryPolicy.builder("test").clock(clock).sleeper(clock).build();
+        FaillibleFunction<Integer, Integer, Exception> slow = x -> {
+            clock.advance(Duration.ofMillis(30));
+            return x * 2;
+        };
+        var failover = new FailoverFunction<>(List.of(slow), SelectionStrategy.HEALTH_WEIGHTED, policy);
+
+        // when
+        var result = Try.of(failover).apply(2);
+
+        // then
+        assertThat(result).isEqualTo(Try.success(4));
+        assertThat(failover.stats().get(0).latencyNanos()).isEqualTo(Duration.ofMillis(30).toNanos());
+    }
+
+    @Test
+    void shouldPreferASlowHealthyTargetToOneFailingFast() throws Exception {
+        // given
+        var clock = new VirtualClock();
+        var policy = RetryPolicy.builder("test").maxAttempts(2).clock(clock).sleeper(clock).build();
+        var failingCalls = new AtomicInteger();
+        FaillibleFunction<Integer, Integer, Exception> failingFast = x -> {
+            failingCalls.incrementAndGet();
+            throw new Exception("failed");
+        };
+        FaillibleFunction<Integer, Integer, Exception> slowHealthy = x -> {
+            clock.advance(Duration.ofMillis(50));
+            return x * 2;
+        };
+        var failover = new FailoverFunction<>(
+                List.of(failingFast, slowHealthy), SelectionStrategy.HEALTH_WEIGHTED, policy);
+
+        // when
+        for (int i = 0; i < 200; i++) {
+            assertThat(Try.of(failover).apply(2)).isEqualTo(Try.success(4));
+        }
+
+        // then
+        assertThat(failover.stats().get(0).latencyNanos()).isEqualTo(0L);
+        assertThat(failingCalls.get()).isLessThan(40);
+    }
+}
@@ -0,0 +1,81 @@
+package org.orel.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.orel.RetryConfig;
+import org.orel.monad.Try;
+import org.orel.operator.FaillibleSupplier;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+public class RetryEventsTest {
+
+    private static final Supplier<Long> DELAY = () -> 10L;
+
+    @Test
+    void shouldRecordAttemptsBackoffsAndExhaustion() throws Exception {
+        // given
+        FaillibleSupplier<Integer, Exception> supplier = mock(FaillibleSupplier.class);
+        doThrow(new IllegalStateException("failed")).when(supplier).get();
+        var retryConfig = new RetryConfig(DELAY, 2).withName("payments");
+
+        // when
+        var events = record(() -> Try.run(supplier, retryConfig));
+
+        // then
+        assertThat(count(events, "org.orel.RetryAttempt")).isEqualTo(2);
+        assertThat(count(events, "org.orel.RetryBackoff")).isEqualTo(1);
+        assertThat(count(events, "org.orel.RetryExhausted")).isEqualTo(1);
+        assertThat(count(events, "org.orel.TryFailure")).isEqualTo(1);
+
+        var backoff = events.stream()
+                .filter(event -> event.getEventType().getName().equals("org.orel.RetryBackoff"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(backoff.getString("policy")).isEqualTo("payments");
+        assertThat(backoff.getDuration().toMillis()).isGreaterThanOrEqualTo(10L);
+    }
+
+    @Test
+    void shouldNotAllocateEventsWhenNoRecordingEnablesThem() {
+        // when
+        var attemptEvent = RetryEvents.beginAttempt();
+        var backoffEvent = RetryEvents.beginBackoff();
+
+        // then
+        assertThat(attemptEvent).isNull();
+        assertThat(backoffEvent).isNull();
+        RetryEvents.endAttempt(attemptEvent, "payments", 1, null);
+        RetryEvents.endBackoff(backoffEvent, "payments", 1, 10L);
+    }
+
+    private static List<RecordedEvent> record(Runnable runnable) throws Exception {
+        var file = Files.createTempFile("retry", ".jfr");
+        try (var settings = RetryEventsTest.class.getResourceAsStream("retrymonad.jfc");
+                var recording = new Recording(Configuration.create(
+                        new InputStreamReader(settings, StandardCharsets.UTF_8)))) {
+            recording.start();
+            runnable.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static long count(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).count();
+    }
+}
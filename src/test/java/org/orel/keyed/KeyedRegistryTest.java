@@ -0,0 +1,101 @@
+package org.orel.keyed;
+
+import org.junit.jupiter.api.Test;
+import org.orel.limiter.RateLimiter;
+import org.orel.monad.Failure;
+import org.orel.monad.Try;
+import org.orel.policy.RetryPolicy;
+import org.orel.time.VirtualClock;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KeyedRegistryTest {
+
+    @Test
+    void shouldCreateOneInstancePerKey() {
+        // given
+        var created = new AtomicInteger();
+        var registry = new KeyedRegistry<String, Integer>(10, Duration.ZERO, key -> created.incrementAndGet());
+
+        // when
+        var a = registry.get("a");
+        var b = registry.get("b");
+
+        // then
+        assertThat(registry.get("a")).isEqualTo(a);
+        assertThat(registry.get("b")).isEqualTo(b);
+        assertThat(created.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldDropIdleInstances() {
+        // given
+        var clock = new VirtualClock();
+        var created = new AtomicInteger();
+        var registry = new KeyedRegistry<String, Integer>(
+                10, Duration.ofMinutes(1), key -> created.incrementAndGet(), clock);
+        registry.get("idle");
+        registry.get("busy");
+
+        // when
+        clock.advance(Duration.ofSeconds(40));
+        registry.get("busy");
+        clock.advance(Duration.ofSeconds(40));
+        registry.cleanUp();
+
+        // then
+        assertThat(registry.getIfPresent("idle")).isNull();
+        assertThat(registry.getIfPresent("busy")).isEqualTo(2);
+        assertThat(registry.evictionCount()).isEqualTo(1L);
+        assertThat(registry.get("idle")).isEqualTo(3);
+    }
+
+    @Test
+    void shouldEvictTheLeastRecentlyUsedInstances() {
+        // given
+        var clock = new VirtualClock();
+        var registry = new KeyedRegistry<Integer, Integer>(100, Duration.ZERO, key -> key, clock);
+
+        // when
+        for (int i = 0; i < 1_000; i++) {
+            clock.advance(Duration.ofMillis(1));
+            registry.get(i % 10 == 0 ? 0 : i);
+        }
+
+        // then
+        assertThat(registry.estimatedSize()).isLessThanOrEqualTo(100L);
+        assertThat(registry.getIfPresent(0)).isEqualTo(0);
+        assertThat(registry.getIfPresent(1)).isNull();
+        assertThat(registry.getIfPresent(999)).isEqualTo(999);
+    }
+
+    @Test
+    void keyedFunctionShouldIsolateTheKeys() {
+        // given
+        var retryable = new KeyedRetryableFunction<String, String, String>(
+                tenant -> tenant,
+                tenant -> tenant,
+                tenant -> RetryPolicy.builder(tenant)
+                        .maxAttempts(1)
+                        .rateLimiter(RateLimiter.tokenBucket(0.001, 1, Duration.ZERO))
+                        .build(),
+                100,
+                Duration.ofMinutes(10));
+
+        // when
+        var first = Try.run(() -> retryable.apply("noisy"));
+        var throttled = Try.run(() -> retryable.apply("noisy"));
+        var other = Try.run(() -> retryable.apply("quiet"));
+
+        // then
+        assertThat(first.get()).isEqualTo("noisy");
+        assertThat(((Failure<String>) throttled).exception().getCause())
+                .isInstanceOf(RateLimiter.RequestNotPermittedException.class);
+        assertThat(other.get()).isEqualTo("quiet");
+        assertThat(retryable.policyOf("quiet").name()).isEqualTo("quiet");
+        assertThat(retryable.estimatedSize()).isEqualTo(2L);
+    }
+}
@@ -0,0 +1,180 @@
+package org.orel.limiter;
+
+import org.junit.jupiter.api.Test;
+import org.orel.RetryConfig;
+import org.orel.operator.FaillibleSupplier;
+import org.orel.policy.Priority;
+import org.orel.retryable.RetryableSupplier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class RateLimiterTest {
+
+    private static final Supplier<Long> DELAY = () -> 10L;
+
+    @Test
+    void tokenBucketShouldAllowBurstThenDeny() {
+        // given
+        var rateLimiter = RateLimiter.tokenBucket(1, 3, Duration.ZERO);
+
+        // when / then
+        assertThat(rateLimiter.tryAcquire()).isTrue();
+        assertThat(rateLimiter.tryAcquire()).isTrue();
+        assertThat(rateLimiter.tryAcquire()).isTrue();
+        assertThat(rateLimiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void tokenBucketShouldWaitForRefill() throws Exception {
+        // given
+        var rateLimiter = RateLimiter.tokenBucket(50, 1, Duration.ZERO);
+        rateLimiter.tryAcquire();
+
+        // when
+        var start = System.nanoTime();
+        var acquired = rateLimiter.tryAcquire(Duration.ofSeconds(1));
+
+        // then
+        assertThat(acquired).isTrue();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(Duration.ofMillis(15).toNanos());
+        assertThat(rateLimiter.tryAcquire(Duration.ofMillis(1))).isFalse();
+    }
+
+    @Test
+    void slidingWindowShouldDenyOverLimitThenRecover() throws Exception {
+        // given
+        var rateLimiter = RateLimiter.slidingWindow(2, Duration.ofMillis(50), Duration.ZERO);
+
+        // when / then
+        assertThat(rateLimiter.tryAcquire()).isTrue();
+        assertThat(rateLimiter.tryAcquire()).isTrue();
+        assertThat(rateLimiter.tryAcquire()).isFalse();
+        assertThat(rateLimiter.tryAcquire(Duration.ofSeconds(1))).isTrue();
+    }
+
+    @Test
+    void decoratedSupplierShouldFailWithoutPermit() throws Exception {
+        // given
+        var rateLimiter = RateLimiter.tokenBucket(0.001, 1, Duration.ZERO);
+        FaillibleSupplier<Integer, Exception> supplier = mock(FaillibleSupplier.class);
+        doReturn(4).when(supplier).get();
+        var decorated = rateLimiter.decorateSupplier(supplier);
+
+        // when
+        var first = decorated.get();
+        var thrownException = assertThrows(Exception.class, decorated::get);
+
+        // then
+        assertThat(first).isEqualTo(4);
+        assertThat(thrownException).isInstanceOf(RateLimiter.RequestNotPermittedException.class);
+        verify(supplier, times(1)).get();
+    }
+
+    @Test
+    void retriesShouldNeedPermits() {
+        // given
+        var rateLimiter = RateLimiter.tokenBucket(0.001, 1, Duration.ZERO);
+        rateLimiter.tryAcquire();
+        var retryConfig = new RetryConfig(DELAY, 3).withRateLimiter(rateLimiter);
+        FaillibleSupplier<Integer, Exception> supplier = mock(FaillibleSupplier.class);
+
+        // when
+        var thrownException = assertThrows(Exception.class, new RetryableSupplier<>(supplier, retryConfig)::get);
+
+        // then
+        assertThat(thrownException).isInstanceOf(RetryConfig.MaxRetriesException.class);
+        assertThat(thrownException.getCause()).isInstanceOf(RateLimiter.RequestNotPermittedException.class);
+        verifyNoInteractions(supplier);
+    }
+
+    @Test
+    void prioritizedShouldGrantTheNextPermitsToTheHigherClass() throws Exception {
+        // given
+        var rateLimiter = new PriorityRateLimiter(
+                RateLimiter.tokenBucket(5, 1, Duration.ofSeconds(5)), Duration.ofSeconds(10));
+        rateLimiter.tryAcquire();
+        var granted = new ConcurrentLinkedQueue<String>();
+
+        // when
+        var waiters = List.of(
+                waitFor(rateLimiter, Priority.BACKGROUND, "batch-1", granted),
+                waitFor(rateLimiter, Priority.BACKGROUND, "batch-2", granted),
+                waitFor(rateLimiter, Priority.BACKGROUND, "batch-3", granted),
+                waitFor(rateLimiter, Priority.BACKGROUND, "batch-4", granted),
+                waitFor(rateLimiter, Priority.CRITICAL, "critical", granted));
+        for (var waiter : waiters) {
+            waiter.join();
+        }
+
+        // then
+        // the first two batch waiters already wait on the token bucket when the critical one arrives
+        assertThat(List.copyOf(granted)).containsExactly("batch-1", "batch-2", "critical", "batch-3", "batch-4");
+    }
+
+    @Test
+    void prioritizedShouldServeStarvingWaitersFirst() throws Exception {
+        // given
+        var rateLimiter = new PriorityRateLimiter(RateLimiter.tokenBucket(5, 1, Duration.ofSeconds(5)), Duration.ZERO);
+        rateLimiter.tryAcquire();
+        var granted = new ConcurrentLinkedQueue<String>();
+
+        // when
+        var waiters = List.of(
+                waitFor(rateLimiter, Priority.BACKGROUND, "batch-1", granted),
+                waitFor(rateLimiter, Priority.BACKGROUND, "batch-2", granted),
+                waitFor(rateLimiter, Priority.BACKGROUND, "batch-3", granted),
+                waitFor(rateLimiter, Priority.CRITICAL, "critical", granted));
+        for (var waiter : waiters) {
+            waiter.join();
+        }
+
+        // then
+        assertThat(List.copyOf(granted)).containsExactly("batch-1", "batch-2", "batch-3", "critical");
+    }
+
+    @Test
+    void prioritizedShouldRejectADelegateNotWaitingForPermits() {
+        // given
+        var delegate = RateLimiter.tokenBucket(5, 1, Duration.ZERO);
+
+        // when
+        var thrownException = assertThrows(
+                IllegalArgumentException.class, () -> RateLimiter.prioritized(delegate, Duration.ofSeconds(1)));
+
+        // then
+        assertThat(thrownException.getMessage()).contains("max wait");
+    }
+
+    /**
+     * Starts a thread waiting for a permit and returns once it waits, parked in a queue or sleeping until its permit.
+     */
+    private static Thread waitFor(RateLimiter rateLimiter, Priority priority, String name, Queue<String> granted)
+            throws InterruptedException {
+        var thread = new Thread(() -> {
+            try {
+                if (rateLimiter.tryAcquire(priority, Duration.ofSeconds(5))) {
+                    granted.add(name);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        while (thread.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+        return thread;
+    }
+}
@@ -0,0 +1,52 @@
+package org.orel.management;
+
+import org.junit.jupiter.api.Test;
+import org.orel.metrics.RetryMetrics;
+import org.orel.monad.Try;
+import org.orel.operator.FaillibleSupplier;
+import org.orel.policy.Backoff;
+import org.orel.policy.RetryPolicy;
+import org.orel.policy.RetryPolicyRegistry;
+
+import javax.management.Attribute;
+import javax.management.MBeanServerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class RetryManagementTest {
+
+    @Test
+    void shouldApplyUpdatesToRunningDecorators() throws Exception {
+        // given
+        var server = MBeanServerFactory.newMBeanServer();
+        var metrics = new RetryMetrics();
+        var registry = new RetryPolicyRegistry();
+        registry.register(RetryPolicy.builder("payments").maxAttempts(3).backoff(Backoff.fixed(1)).listener(metrics)
+                .build());
+        var objectName = RetryManagement.register(server, registry, metrics, "payments");
+        FaillibleSupplier<Integer, Exception> supplier = mock(FaillibleSupplier.class);
+        doThrow(new Exception("failed")).when(supplier).get();
+        var retryable = registry.decorateSupplier("payments", supplier);
+
+        // when
+        Try.run(retryable);
+        server.setAttribute(objectName, new Attribute("MaxAttempts", 5L));
+        server.invoke(objectName, "useExponentialBackoff", new Object[] {1L, 2.0, 4L},
+                new String[] {long.class.getName(), double.class.getName(), long.class.getName()});
+        Try.run(retryable);
+        server.setAttribute(objectName, new Attribute("Enabled", false));
+        Try.run(retryable);
+
+        // then
+        verify(supplier, times(9)).get();
+        assertThat(server.getAttribute(objectName, "Attempts")).isEqualTo(9L);
+        assertThat(server.getAttribute(objectName, "Exhaustions")).isEqualTo(3L);
+        assertThat(server.getAttribute(objectName, "Retries")).isEqualTo(6L);
+        assertThat((String) server.getAttribute(objectName, "Backoff")).contains("multiplier=2.0");
+        assertThat(registry.get("payments").isEnabled()).isFalse();
+    }
+}
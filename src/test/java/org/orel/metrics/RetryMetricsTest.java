@@ -0,0 +1,181 @@
+package org.orel.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.orel.CancellationToken;
+import org.orel.RetryConfig;
+import org.orel.operator.FaillibleFunction;
+import org.orel.policy.Backoff;
+import org.orel.policy.RetryPolicy;
+import org.orel.retryable.RetryListener;
+import org.orel.retryable.RetryableFunction;
+import org.orel.time.VirtualClock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+public class RetryMetricsTest {
+
+    private static final Supplier<Long> DELAY = () -> 10L;
+
+    @Test
+    void listenerShouldReceiveEventsInOrder() throws Exception {
+        // given
+        var events = new ArrayList<String>();
+        var retryConfig = new RetryConfig(DELAY, 3).withName("payments").withListener(recording(events));
+        FaillibleFunction<Integer, Integer, Exception> function = mock(FaillibleFunction.class);
+        doThrow(new Exception("failed")).doReturn(4).when(function).apply(2);
+
+        // when
+        new RetryableFunction<>(function, retryConfig).apply(2);
+
+        // then
+        assertThat(events).containsExactly(
+                "payments started 1", "payments failed 1", "payments backoff 1 10",
+                "payments started 2", "payments success 2");
+    }
+
+    @Test
+    void listenerShouldBeNotifiedOfExhaustionWithoutFinalBackoff() throws Exception {
+        // given
+        var events = new ArrayList<String>();
+        var retryConfig = new RetryConfig(DELAY, 2).withListener(recording(events));
+        FaillibleFunction<Integer, Integer, Exception> function = mock(FaillibleFunction.class);
+        doThrow(new Exception("failed")).when(function).apply(2);
+
+        // when
+        assertThrows(
+                RetryConfig.MaxRetriesException.class, () -> new RetryableFunction<>(function, retryConfig).apply(2));
+
+        // then
+        assertThat(events).containsExactly(
+                "default started 1", "default failed 1", "default backoff 1 10",
+                "default started 2", "default failed 2", "default exhausted 2");
+    }
+
+    @Test
+    void metricsShouldCountAttemptsPerPolicy() throws Exception {
+        // given
+        var metrics = new RetryMetrics();
+        var retryConfig = new RetryConfig(DELAY, 3).withName("payments").withListener(metrics);
+        FaillibleFunction<Integer, Integer, Exception> function = mock(FaillibleFunction.class);
+        doThrow(new Exception("failed")).doReturn(4).when(function).apply(2);
+
+        // when
+        new RetryableFunction<>(function, retryConfig).apply(2);
+        new RetryableFunction<>(function, retryConfig).apply(2);
+
+        // then
+        var stats = metrics.stats("payments");
+        assertThat(stats.attempts()).isEqualTo(3);
+        assertThat(stats.failedAttempts()).isEqualTo(1);
+        assertThat(stats.successes()).isEqualTo(2);
+        assertThat(stats.retries()).isEqualTo(1);
+        assertThat(stats.p999LatencyNanos()).isGreaterThanOrEqualTo(stats.p50LatencyNanos());
+        assertThat(stats.p999LatencyNanos()).isGreaterThanOrEqualTo(10_000_000L);
+    }
+
+    @Test
+    void metricsShouldCountRetriesAndLatenciesOfAbortedCalls() throws Exception {
+        // given
+        var metrics = new RetryMetrics();
+        var clock = new VirtualClock();
+        var policy = RetryPolicy.builder("payments")
+                .maxAttempts(3)
+                .backoff(Backoff.fixed(10))
+                .listener(metrics)
+                .clock(clock)
+                .sleeper(clock)
+                .build();
+        var cancelled = new CancellationToken();
+        cancelled.cancel();
+        var failures = new AtomicInteger();
+        FaillibleFunction<Integer, Integer, Exception> function = x -> {
+            clock.advance(Duration.ofMillis(10));
+            if (failures.getAndIncrement() == 0) {
+                throw new Exception("failed");
+            }
+            return x * 2;
+        };
+
+        // when
+        assertThrows(
+                CancellationToken.CancelledException.class,
+                () -> new RetryableFunction<>(function, policy, null, cancelled).apply(2));
+        new RetryableFunction<>(function, policy).apply(2);
+
+        // then
+        var stats = metrics.stats("payments");
+        assertThat(stats.attempts()).isEqualTo(2);
+        assertThat(stats.retries()).isEqualTo(1);
+        assertThat(stats.aborts()).isEqualTo(1);
+        assertThat(stats.meanLatencyNanos()).isEqualTo(Duration.ofMillis(15).toNanos());
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 1, 15, 16, 17, 1_000, 123_456_789, Long.MAX_VALUE / 3})
+    void histogramBucketsShouldBoundRecordedValue(long value) {
+        // given
+        var index = LatencyHistogram.indexOf(value);
+
+        // when / then
+        assertThat(LatencyHistogram.lowerBoundOf(index)).isLessThanOrEqualTo(value);
+        assertThat(LatencyHistogram.upperBoundOf(index)).isGreaterThanOrEqualTo(value);
+        assertThat(LatencyHistogram.upperBoundOf(index) - value).isLessThanOrEqualTo(value / 16);
+    }
+
+    @Test
+    void histogramShouldReportPercentiles() {
+        // given
+        var histogram = new LatencyHistogram();
+
+        // when
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L);
+        }
+
+        // then
+        assertThat(histogram.count()).isEqualTo(1000);
+        assertThat(histogram.valueAt(0.5)).isBetween(500_000L, 532_000L);
+        assertThat(histogram.valueAt(0.99)).isBetween(990_000L, 1_053_000L);
+    }
+
+    private static RetryListener recording(List<String> events) {
+        return new RetryListener() {
+            @Override
+            public void onAttemptStarted(String policy, int attempt) {
+                events.add(policy + " started " + attempt);
+            }
+
+            @Override
+            public void onAttemptFailed(String policy, int attempt, Exception exception, long durationNanos) {
+                events.add(policy + " failed " + attempt);
+            }
+
+            @Override
+            public void onBackoffScheduled(String policy, int attempt, long delayMillis) {
+                events.add(policy + " backoff " + attempt + " " + delayMillis);
+            }
+
+            @Override
+            public void onSuccess(String policy, int attempts, long elapsedNanos) {
+                events.add(policy + " success " + attempts);
+            }
+
+            @Override
+            public void onExhausted(String policy, int attempts, Exception lastException, long elapsedNanos) {
+                events.add(policy + " exhausted " + attempts);
+            }
+        };
+    }
+}
@@ -9,8 +9,17 @@ import org.orel.operator.FaillibleConsumer;
 import org.orel.operator.FaillibleFunction;
 import org.orel.operator.FaillibleRunnable;
 import org.orel.operator.FaillibleSupplier;
+import org.orel.retryable.RetryableSupplier;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -19,6 +28,7 @@ import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -313,4 +323,274 @@ public class TryTest {
         shouldBeSuccess(result);
         assertThat(result.get()).isEqualTo(value1 + value2);
     }
+
+    @Test
+    void combineShouldEvaluateSuppliersConcurrently() {
+        // given
+        var running = new CountDownLatch(2);
+        // each supplier only succeeds once it has seen the other one running at the same time
+        FaillibleSupplier<Integer, Exception> supplier1 = () -> {
+            running.countDown();
+            if (!running.await(5, TimeUnit.SECONDS)) {
+                throw new Exception("ran alone");
+            }
+            return 2;
+        };
+        FaillibleSupplier<Integer, Exception> supplier2 = () -> {
+            running.countDown();
+            if (!running.await(5, TimeUnit.SECONDS)) {
+                throw new Exception("ran alone");
+            }
+            return 3;
+        };
+
+        // when
+        var result = Try.combine(supplier1, supplier2, Integer::sum);
+
+        // then
+        assertThat(result).isEqualTo(Try.success(5));
+    }
+
+    @Test
+    void combineShouldFailFastAndInterruptSiblings() {
+        // given
+        var started = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+        var exceptionToThrow = new Exception("failed");
+        FaillibleSupplier<Integer, Exception> hangingSupplier = () -> {
+            started.countDown();
+            try {
+                Thread.sleep(60_000);
+                return 2;
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        };
+        FaillibleSupplier<Integer, Exception> failingSupplier = () -> {
+            // fail only once the sibling runs, a sibling cancelled before starting is never interrupted
+            started.await();
+            throw exceptionToThrow;
+        };
+
+        // when
+        var result = Try.combine(hangingSupplier, failingSupplier, Integer::sum);
+
+        // then
+        assertThat(result).isEqualTo(Try.failure(exceptionToThrow));
+        assertDoesNotThrow(() -> assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue());
+    }
+
+    @Test
+    void combineShouldRetryEachSupplierOnItsOwn() throws Exception {
+        // given
+        FaillibleSupplier<Integer, Exception> flaky = mock(FaillibleSupplier.class);
+        FaillibleSupplier<Integer, Exception> stable = mock(FaillibleSupplier.class);
+        FaillibleSupplier<Integer, Exception> other = mock(FaillibleSupplier.class);
+        doThrow(new Exception("failed")).doReturn(2).when(flaky).get();
+        doReturn(3).when(stable).get();
+        doReturn(4).when(other).get();
+
+        // when
+        var result = Try.combine(flaky, stable, other, (x, y, z) -> x * y * z, new RetryConfig(DELAY, 3));
+
+        // then
+        assertThat(result).isEqualTo(Try.success(24));
+        verify(flaky, times(2)).get();
+        verify(stable, times(1)).get();
+        verify(other, times(1)).get();
+    }
+
+    @Test
+    void zipShouldFailWithTheFailureOfASupplierOnceItsRetriesAreExhausted() throws Exception {
+        // given
+        FaillibleSupplier<Integer, Exception> failing = mock(FaillibleSupplier.class);
+        doThrow(new Exception("failed")).when(failing).get();
+        List<FaillibleSupplier<Integer, Exception>> suppliers = List.of(() -> 1, failing);
+
+        // when
+        var result = Try.zip(suppliers, new RetryConfig(DELAY, 2));
+
+        // then
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(((Failure<List<Integer>>) result).exception()).isInstanceOf(RetryConfig.MaxRetriesException.class);
+        verify(failing, times(2)).get();
+    }
+
+    @Test
+    void zipShouldKeepSuppliersOrder() {
+        // given
+        List<FaillibleSupplier<Integer, Exception>> suppliers = List.of(
+                () -> {
+                    Thread.sleep(50);
+                    return 1;
+                },
+                () -> 2,
+                new RetryableSupplier<>(SUPPLIER, new RetryConfig(DELAY, 3)));
+
+        // when
+        var result = Try.zip(suppliers);
+
+        // then
+        assertThat(result).isEqualTo(Try.success(List.of(1, 2, 5)));
+    }
+
+    @Test
+    void firstSuccessShouldReturnTheFastestAndInterruptTheOthers() {
+        // given
+        var interrupted = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+        List<FaillibleSupplier<Integer, Exception>> suppliers = List.of(
+                () -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(60_000);
+                        return 1;
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        throw e;
+                    }
+                },
+                () -> {
+                    // answer only once the slow one runs, one cancelled before starting is never interrupted
+                    started.await();
+                    return 2;
+                });
+
+        // when
+        var result = Try.firstSuccess(suppliers);
+
+        // then
+        assertThat(result).isEqualTo(Try.success(2));
+        assertDoesNotThrow(() -> assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue());
+    }
+
+    @Test
+    void firstSuccessShouldSkipFailures() {
+        // given
+        List<FaillibleSupplier<Integer, Exception>> suppliers = List.of(
+                () -> {
+                    throw new Exception("cache miss");
+                },
+                () -> {
+                    Thread.sleep(50);
+                    return 2;
+                });
+
+        // when
+        var result = Try.firstSuccess(suppliers);
+
+        // then
+        assertThat(result).isEqualTo(Try.success(2));
+    }
+
+    @Test
+    void firstSuccessShouldAggregateAllFailures() {
+        // given
+        var failure1 = new Exception("replica 1 down");
+        var failure2 = new Exception("replica 2 down");
+        List<FaillibleSupplier<Integer, Exception>> suppliers = List.of(
+                () -> {
+                    throw failure1;
+                },
+                () -> {
+                    Thread.sleep(50);
+                    throw failure2;
+                });
+
+        // when
+        var result = Try.firstSuccess(suppliers);
+
+        // then
+        var exception = ((Failure<Integer>) result).exception();
+        assertThat(exception).isInstanceOf(Try.AllFailedException.class);
+        assertThat(((Try.AllFailedException) exception).failures()).isEqualTo(List.of(failure1, failure2));
+        assertThat(exception.getCause()).isEqualTo(failure1);
+    }
+
+    @Test
+    void firstSuccessShouldNotLaunchTheHedgeWhenThePrimaryAnswersWithinTheStagger() {
+        // given
+        var hedged = new AtomicBoolean();
+        List<FaillibleSupplier<Integer, Exception>> suppliers = List.of(
+                () -> 1,
+                () -> {
+                    hedged.set(true);
+                    return 2;
+                });
+
+        // when
+        var result = Try.firstSuccess(suppliers, Duration.ofSeconds(10));
+
+        // then
+        assertThat(result).isEqualTo(Try.success(1));
+        assertThat(hedged.get()).isFalse();
+    }
+
+    @Test
+    void firstSuccessShouldSkipTheHedgesASaturatedExecutorRejects() {
+        // given
+        var submitted = new AtomicInteger();
+        Executor saturated = task -> {
+            if (submitted.incrementAndGet() > 1) {
+                throw new RejectedExecutionException("saturated");
+            }
+            new Thread(task).start();
+        };
+        List<FaillibleSupplier<Integer, Exception>> suppliers = List.of(
+                () -> {
+                    Thread.sleep(50);
+                    return 1;
+                },
+                () -> 2);
+
+        // when
+        var result = Try.firstSuccess(suppliers, Duration.ZERO, saturated);
+
+        // then
+        assertThat(result).isEqualTo(Try.success(1));
+        assertThat(submitted.get()).isEqualTo(2);
+    }
+
+    @Test
+    void firstSuccessShouldRunThePrimaryOnTheCallingThreadWhenTheExecutorRejectsIt() {
+        // given
+        var caller = Thread.currentThread();
+        Executor saturated = task -> {
+            throw new RejectedExecutionException("saturated");
+        };
+        List<FaillibleSupplier<Thread, Exception>> suppliers = List.of(
+                () -> {
+                    throw new Exception("primary failed");
+                },
+                Thread::currentThread);
+
+        // when
+        var firstSuccess = Try.firstSuccess(suppliers, Duration.ZERO, saturated);
+        var race = Try.race(suppliers, saturated);
+
+        // then
+        assertThat(firstSuccess).isEqualTo(Try.success(caller));
+        assertThat(race.isSuccess()).isFalse();
+    }
+
+    @Test
+    void raceShouldReturnTheFirstOutcomeEvenAFailure() {
+        // given
+        var exceptionToThrow = new Exception("failed fast");
+        List<FaillibleSupplier<Integer, Exception>> suppliers = List.of(
+                () -> {
+                    Thread.sleep(200);
+                    return 1;
+                },
+                () -> {
+                    throw exceptionToThrow;
+                });
+
+        // when
+        var result = Try.race(suppliers);
+
+        // then
+        assertThat(result).isEqualTo(Try.failure(exceptionToThrow));
+    }
 }
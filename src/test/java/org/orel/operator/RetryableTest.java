@@ -3,12 +3,15 @@ package org.orel.operator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.orel.Deadline;
 import org.orel.RetryConfig;
 import org.orel.retryable.RetryableConsumer;
 import org.orel.retryable.RetryableFunction;
 import org.orel.retryable.RetryableRunnable;
 import org.orel.retryable.RetryableSupplier;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -160,4 +163,69 @@ public class RetryableTest {
         verify(function, times(1)).apply(value);
         assertThat(result).isEqualTo(4);
     }
+
+    @Test
+    void functionShouldShrinkItsRequestOnLaterAttempts() throws Exception {
+        // given
+        var retryConfig = new RetryConfig(DELAY, 3).withDeadline(Deadline.after(Duration.ofSeconds(10)));
+        var exceptionToThrow = new Exception("too large");
+        var contexts = new ArrayList<String>();
+        ContextualFunction<Integer, Integer, Exception> function = (pageSize, context) -> {
+            contexts.add(context.attempt() + "/" + context.remainingAttempts() + "/" + context.lastException());
+            assertThat(context.remainingNanos()).isLessThanOrEqualTo(Duration.ofSeconds(10).toNanos());
+            var shrunk = pageSize >> (context.attempt() - 1);
+            if (shrunk > 25) {
+                throw exceptionToThrow;
+            }
+            return shrunk;
+        };
+
+        // when
+        var result = new RetryableFunction<>(function, retryConfig).apply(100);
+
+        // then
+        assertThat(result).isEqualTo(25);
+        assertThat(contexts).containsExactly("1/2/null", "2/1/" + exceptionToThrow, "3/0/" + exceptionToThrow);
+    }
+
+    @Test
+    void supplierShouldBeToldWhetherItIsRetried() throws Exception {
+        // given
+        var retryConfig = new RetryConfig(DELAY, 2);
+        ContextualSupplier<String, Exception> supplier = context -> {
+            if (!context.isRetry()) {
+                throw new Exception("primary down");
+            }
+            return "replica";
+        };
+
+        // when
+        var result = new RetryableSupplier<>(supplier, retryConfig).get();
+
+        // then
+        assertThat(result).isEqualTo("replica");
+    }
+
+    @Test
+    void nestedCallShouldNotUpdateTheContextOfTheOuterOne() throws Exception {
+        // given
+        ContextualSupplier<Integer, Exception> inner = context -> context.attempt();
+        var innerRetryable = new RetryableSupplier<>(inner, new RetryConfig(DELAY, 3));
+        ContextualSupplier<String, Exception> outer = context -> {
+            if (!context.isRetry()) {
+                throw new Exception("failed");
+            }
+            var innerAttempt = innerRetryable.get();
+            return context.attempt() + "/" + innerAttempt;
+        };
+        var outerRetryable = new RetryableSupplier<>(outer, new RetryConfig(DELAY, 3));
+
+        // when
+        var first = outerRetryable.get();
+        var second = outerRetryable.get();
+
+        // then
+        assertThat(first).isEqualTo("2/1");
+        assertThat(second).isEqualTo("2/1");
+    }
 }
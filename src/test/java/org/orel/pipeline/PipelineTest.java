@@ -0,0 +1,146 @@
+package org.orel.pipeline;
+
+import org.junit.jupiter.api.Test;
+import org.orel.monad.Failure;
+import org.orel.operator.FaillibleFunction;
+import org.orel.policy.Backoff;
+import org.orel.policy.RetryPolicy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Comparator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class PipelineTest {
+
+    private static final RetryPolicy POLICY = RetryPolicy.builder("pipeline")
+            .maxAttempts(3)
+            .backoff(Backoff.fixed(1))
+            .build();
+
+    @Test
+    void shouldResumeFromTheFailedStage() throws Exception {
+        // given
+        FaillibleFunction<Integer, Integer, Exception> expensive = mock(FaillibleFunction.class);
+        doReturn(2).when(expensive).apply(1);
+        FaillibleFunction<Integer, Integer, Exception> flaky = mock(FaillibleFunction.class);
+        doThrow(new Exception("failed")).doReturn(3).when(flaky).apply(2);
+        var pipeline = Pipeline.<Integer>start(POLICY)
+                .thenApply("expensive", expensive)
+                .thenApply("flaky", flaky)
+                .thenApply("last", x -> x + 1);
+
+        // when
+        var result = pipeline.run(1);
+
+        // then
+        assertThat(result.get()).isEqualTo(4);
+        verify(expensive, times(1)).apply(1);
+        verify(flaky, times(2)).apply(2);
+    }
+
+    @Test
+    void shouldNotRetryAStageThatIsNotIdempotent() throws Exception {
+        // given
+        var exceptionToThrow = new Exception("charged twice?");
+        FaillibleFunction<Integer, Integer, Exception> charge = mock(FaillibleFunction.class);
+        doThrow(exceptionToThrow).when(charge).apply(1);
+        FaillibleFunction<Integer, Integer, Exception> next = mock(FaillibleFunction.class);
+        var pipeline = Pipeline.<Integer>start(POLICY)
+                .thenApplyOnce("charge", charge)
+                .thenApply("next", next);
+
+        // when
+        var result = pipeline.run(1);
+
+        // then
+        assertThat(((Failure<Integer>) result).exception()).isEqualTo(exceptionToThrow);
+        verify(charge, times(1)).apply(1);
+        verifyNoInteractions(next);
+    }
+
+    @Test
+    void shouldResumeAFailedRunFromTheCheckpointDirectory() throws Exception {
+        // given
+        var directory = Files.createTempDirectory("checkpoints");
+        FaillibleFunction<String, String, Exception> expensive = mock(FaillibleFunction.class);
+        doReturn("fetched").when(expensive).apply("order");
+        FaillibleFunction<String, String, Exception> flaky = mock(FaillibleFunction.class);
+        doThrow(new Exception("down")).doReturn("shipped").when(flaky).apply("fetched");
+        var single = RetryPolicy.builder("single").maxAttempts(1).build();
+        var pipeline = Pipeline.<String>start(single)
+                .thenApply("fetch", expensive)
+                .thenApply("ship", flaky)
+                .withCheckpointStore(CheckpointStore.directory(directory));
+
+        try {
+            // when
+            var failed = pipeline.run("order-42", "order");
+            var resumed = pipeline.run("order-42", "order");
+
+            // then
+            assertThat(failed.isSuccess()).isFalse();
+            assertThat(resumed.get()).isEqualTo("shipped");
+            verify(expensive, times(1)).apply("order");
+            assertThat(Files.exists(directory.resolve("order-42"))).isFalse();
+        } finally {
+            try (var files = Files.walk(directory)) {
+                for (var file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldNotLeaveCheckpointsBehindForAnAnonymousRun() throws Exception {
+        // given
+        var directory = Files.createTempDirectory("checkpoints");
+        FaillibleFunction<String, String, Exception> flaky = mock(FaillibleFunction.class);
+        doThrow(new Exception("down")).when(flaky).apply("fetched");
+        var pipeline = Pipeline.<String>start(POLICY)
+                .thenApply("fetch", x -> "fetched")
+                .thenApply("ship", flaky)
+                .withCheckpointStore(CheckpointStore.directory(directory));
+
+        try {
+            // when
+            var result = pipeline.run("order");
+
+            // then
+            assertThat(result.isSuccess()).isFalse();
+            try (var files = Files.list(directory)) {
+                assertThat(files.count()).isEqualTo(0L);
+            }
+        } finally {
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test
+    void shouldNotRetryAStageThatIsNotIdempotentWhenItsCheckpointCannotBeSaved() throws Exception {
+        // given
+        var exceptionToThrow = new IOException("disk full");
+        CheckpointStore store = mock(CheckpointStore.class);
+        doThrow(exceptionToThrow).when(store).save("order-42", "charge", 2);
+        FaillibleFunction<Integer, Integer, Exception> charge = mock(FaillibleFunction.class);
+        doReturn(2).when(charge).apply(1);
+        var pipeline = Pipeline.<Integer>start(POLICY)
+                .thenApplyOnce("charge", charge)
+                .withCheckpointStore(store);
+
+        // when
+        var result = pipeline.run("order-42", 1);
+
+        // then
+        assertThat(((Failure<Integer>) result).exception()).isEqualTo(exceptionToThrow);
+        verify(charge, times(1)).apply(1);
+    }
+}
@@ -0,0 +1,64 @@
+package org.orel.policy;
+
+import org.junit.jupiter.api.Test;
+import org.orel.simulation.RetrySimulation;
+import org.orel.simulation.ServiceModel;
+import org.orel.simulation.SimulationReport;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveBackoffTest {
+
+    private static final ServiceModel TRANSIENT = ServiceModel.failing(0.3, Duration.ofMillis(10));
+
+    private static final ServiceModel OUTAGES = ServiceModel.failing(0, Duration.ofMillis(10))
+            .withPeriodicOutages(Duration.ofSeconds(10), Duration.ofSeconds(2));
+
+    @Test
+    void shouldRetryQuicklyOnTransientFailures() {
+        // when
+        var adaptive = simulate(new AdaptiveBackoff(1, 5_000), TRANSIENT);
+        var patient = simulate(Backoff.fixed(2_000), TRANSIENT);
+
+        // then
+        assertThat(adaptive.successRate()).isGreaterThan(0.98);
+        assertThat(adaptive.meanLatencyNanos()).isLessThan(patient.meanLatencyNanos() / 10);
+    }
+
+    @Test
+    void shouldLearnToWaitForSlowRecoveries() {
+        // when
+        var adaptive = simulate(new AdaptiveBackoff(1, 5_000), OUTAGES);
+        var eager = simulate(Backoff.exponential(5, 4, 5_000), OUTAGES);
+
+        // then
+        assertThat(adaptive.successRate()).isGreaterThan(eager.successRate() + 0.1);
+        assertThat(adaptive.loadAmplification()).isLessThan(eager.loadAmplification());
+    }
+
+    @Test
+    void shouldForgetOldOutcomes() {
+        // given
+        var backoff = new AdaptiveBackoff(1, 1_000, 100, 0, 1);
+        for (int i = 0; i < 1_000; i++) {
+            backoff.record(1, false);
+        }
+        var slowBest = backoff.bestDelayMillis();
+
+        // when
+        for (int i = 0; i < 1_000; i++) {
+            backoff.record(1, true);
+        }
+
+        // then
+        assertThat(slowBest).isGreaterThan(1L);
+        assertThat(backoff.bestDelayMillis()).isEqualTo(1L);
+    }
+
+    private static SimulationReport simulate(Backoff backoff, ServiceModel model) {
+        var policy = RetryPolicy.builder("test").maxAttempts(4).backoff(backoff).build();
+        return RetrySimulation.builder(policy, model).calls(50_000).arrivalRate(1_000).build().run();
+    }
+}
@@ -0,0 +1,283 @@
+package org.orel.policy;
+
+import org.junit.jupiter.api.Test;
+import org.orel.Deadline;
+import org.orel.RetryConfig;
+import org.orel.monad.Failure;
+import org.orel.monad.Try;
+import org.orel.operator.FaillibleSupplier;
+import org.orel.retryable.RetryListener;
+import org.orel.retryable.RetryableFunction;
+import org.orel.time.VirtualClock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class RetryPolicyTest {
+
+    @Test
+    void decoratorShouldBeReusable() throws Exception {
+        // given
+        var policy = RetryPolicy.builder("test").maxAttempts(3).backoff(Backoff.fixed(10)).build();
+        FaillibleSupplier<Integer, Exception> supplier = mock(FaillibleSupplier.class);
+        doThrow(new Exception("failed")).doReturn(1).doThrow(new Exception("failed")).doReturn(2)
+                .when(supplier).get();
+        var retryable = policy.decorateSupplier(supplier);
+
+        // when
+        var first = Try.run(retryable);
+        var second = Try.run(retryable);
+
+        // then
+        assertThat(first.get()).isEqualTo(1);
+        assertThat(second.get()).isEqualTo(2);
+        verify(supplier, times(4)).get();
+    }
+
+    @Test
+    void shouldNotRetryAbortedFailures() throws Exception {
+        // given
+        var aborted = new AtomicInteger();
+        var policy = RetryPolicy.builder("test")
+                .maxAttempts(5)
+                .abortOn(IllegalArgumentException.class)
+                .listener(new RetryListener() {
+                    @Override
+                    public void onAborted(String policy, int attempts, Exception cause) {
+                        aborted.incrementAndGet();
+                    }
+                })
+                .build();
+        FaillibleSupplier<Integer, Exception> supplier = mock(FaillibleSupplier.class);
+        var exceptionToThrow = new IllegalArgumentException("invalid");
+        doThrow(exceptionToThrow).when(supplier).get();
+
+        // when
+        var result = Try.run(supplier, policy);
+
+        // then
+        assertThat(((Failure<Integer>) result).exception()).isEqualTo(exceptionToThrow);
+        assertThat(aborted.get()).isEqualTo(1);
+        verify(supplier, times(1)).get();
+    }
+
+    @Test
+    void shouldOnlyRetryListedFailures() throws Exception {
+        // given
+        var policy = RetryPolicy.builder("test").maxAttempts(5).retryOn(IllegalStateException.class).build();
+        FaillibleSupplier<Integer, Exception> supplier = mock(FaillibleSupplier.class);
+        var exceptionToThrow = new Exception("failed");
+        doThrow(new IllegalStateException("transient")).doThrow(exceptionToThrow).when(supplier).get();
+
+        // when
+        var result = Try.run(supplier, policy);
+
+        // then
+        assertThat(((Failure<Integer>) result).exception()).isEqualTo(exceptionToThrow);
+        verify(supplier, times(2)).get();
+    }
+
+    @Test
+    void shouldBackOffOnTheVirtualClock() throws Exception {
+        // given
+        var clock = new VirtualClock();
+        var policy = RetryPolicy.builder("test")
+                .maxAttempts(4)
+                .backoff(Backoff.exponential(60_000, 2, 600_000))
+                .clock(clock)
+                .sleeper(clock)
+                .build();
+        FaillibleSupplier<Integer, Exception> supplier = mock(FaillibleSupplier.class);
+        doThrow(new Exception("failed")).doThrow(new Exception("failed")).doThrow(new Exception("failed"))
+                .doReturn(1).when(supplier).get();
+
+        // when
+        var result = Try.run(supplier, policy);
+
+        // then
+        assertThat(result.get()).isEqualTo(1);
+        assertThat(clock.nanoTime()).isEqualTo(Duration.ofMinutes(7).toNanos());
+    }
+
+    @Test
+    void shouldWaitForTheSuggestedDelayWithinBounds() throws Exception {
+        // given
+        var clock = new VirtualClock();
+        var policy = RetryPolicy.builder("test")
+                .maxAttempts(3)
+                .backoff(Backoff.fixed(1))
+                .retryAfterBounds(Duration.ofSeconds(1), Duration.ofSeconds(20))
+                .clock(clock)
+                .sleeper(clock)
+                .build();
+        FaillibleSupplier<Integer, Exception> supplier = mock(FaillibleSupplier.class);
+        doThrow(new ThrottledException(Duration.ofSeconds(5)))
+                .doThrow(new Exception("wrapped", new ThrottledException(Duration.ofMinutes(1))))
+                .doReturn(1)
+                .when(supplier).get();
+
+        // when
+        var result = Try.run(supplier, policy);
+
+        // then
+        assertThat(result.get()).isEqualTo(1);
+        assertThat(clock.nanoTime()).isEqualTo(Duration.ofSeconds(25).toNanos());
+    }
+
+    @Test
+    void shouldFailRightAwayWhenTheSuggestedDelayPassesTheDeadline() throws Exception {
+        // given
+        var clock = new VirtualClock();
+        var policy = RetryPolicy.builder("test").maxAttempts(3).clock(clock).sleeper(clock).build();
+        FaillibleSupplier<Integer, Exception> supplier = mock(FaillibleSupplier.class);
+        doThrow(new ThrottledException(Duration.ofSeconds(30))).when(supplier).get();
+        var retryable = new RetryableFunction<Void, Integer>(
+                ignored -> supplier.get(), policy, Deadline.after(Duration.ofSeconds(10), clock), null);
+
+        // when
+        var result = Try.of(retryable).apply(null);
+
+        // then
+        assertThat(((Failure<Integer>) result).exception()).isInstanceOf(Deadline.DeadlineExceededException.class);
+        assertThat(clock.nanoTime()).isEqualTo(0L);
+        verify(supplier, times(1)).get();
+    }
+
+    @Test
+    void shouldMakeALastAttemptHalfwayToTheDeadline() throws Exception {
+        // given
+        var clock = new VirtualClock();
+        var policy = RetryPolicy.builder("test")
+                .maxAttempts(5)
+                .backoff(Backoff.fixed(60_000))
+                .clock(clock)
+                .sleeper(clock)
+                .build();
+        FaillibleSupplier<Integer, Exception> supplier = mock(FaillibleSupplier.class);
+        doThrow(new Exception("failed")).when(supplier).get();
+        var retryable = new RetryableFunction<Void, Integer>(
+                ignored -> supplier.get(), policy, Deadline.after(Duration.ofSeconds(10), clock), null);
+
+        // when
+        var result = Try.of(retryable).apply(null);
+
+        // then
+        assertThat(((Failure<Integer>) result).exception()).isInstanceOf(Deadline.DeadlineExceededException.class);
+        assertThat(clock.nanoTime()).isEqualTo(Duration.ofSeconds(5).toNanos());
+        verify(supplier, times(2)).get();
+    }
+
+    @Test
+    void shouldParseRetryAfterHeaders() {
+        // given
+        var now = Instant.parse("2015-10-21T07:28:00Z");
+
+        // then
+        assertThat(RetryAfter.parseHeader("120", now)).isEqualTo(Duration.ofMinutes(2));
+        assertThat(RetryAfter.parseHeader("Wed, 21 Oct 2015 07:29:00 GMT", now)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(RetryAfter.parseHeader("Wed, 21 Oct 2015 07:27:00 GMT", now)).isEqualTo(Duration.ZERO);
+        assertThat(RetryAfter.parseHeader("soon", now)).isNull();
+    }
+
+    @Test
+    void exponentialBackoffShouldBeCapped() {
+        // given
+        var backoff = Backoff.exponential(10, 2, 50);
+
+        // then
+        assertThat(backoff.delayMillis(1)).isEqualTo(10L);
+        assertThat(backoff.delayMillis(2)).isEqualTo(20L);
+        assertThat(backoff.delayMillis(3)).isEqualTo(40L);
+        assertThat(backoff.delayMillis(4)).isEqualTo(50L);
+        assertThat(backoff.delayMillis(1_000)).isEqualTo(50L);
+    }
+
+    @Test
+    void retryConfigShouldAdaptIntoPolicy() throws Exception {
+        // given
+        var retryConfig = new RetryConfig(10L, 3).withName("adapted");
+        FaillibleSupplier<Integer, Exception> supplier = mock(FaillibleSupplier.class);
+        doThrow(new Exception("failed")).doReturn(1).when(supplier).get();
+
+        // when
+        var policy = retryConfig.toPolicy();
+        var result = Try.run(supplier, policy);
+
+        // then
+        assertThat(policy.name()).isEqualTo("adapted");
+        assertThat(policy.maxAttempts()).isEqualTo(3L);
+        assertThat(result.get()).isEqualTo(1);
+    }
+
+    @Test
+    void constantDelaySupplierShouldNotAllocateABackoffPerCall() {
+        // given
+        var backoff = Backoff.of(() -> 10L);
+
+        // when
+        var first = backoff.forCall();
+        var second = backoff.forCall();
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(second.delayMillis(1)).isEqualTo(10L);
+    }
+
+    @Test
+    void retryConfigShouldDrawOneDelayPerCall() throws Exception {
+        // given
+        var draws = new AtomicInteger();
+        var retryConfig = new RetryConfig(() -> (long) draws.incrementAndGet() - 1, 3);
+        FaillibleSupplier<Integer, Exception> supplier = mock(FaillibleSupplier.class);
+        doThrow(new Exception("failed")).doThrow(new Exception("failed")).doReturn(1).when(supplier).get();
+
+        // when
+        var result = Try.run(supplier, retryConfig);
+
+        // then
+        assertThat(result.get()).isEqualTo(1);
+        assertThat(draws.get()).isEqualTo(1);
+    }
+
+    @Test
+    void registryShouldSharePoliciesByName() {
+        // given
+        var registry = new RetryPolicyRegistry();
+        var policy = registry.register(RetryPolicy.builder("shared").build());
+
+        // when
+        var computed = registry.computeIfAbsent("shared", name -> RetryPolicy.builder(name).maxAttempts(10).build());
+
+        // then
+        assertThat(computed).isSameAs(policy);
+        assertThat(registry.get("shared")).isSameAs(policy);
+        assertThrows(IllegalStateException.class, () -> registry.register(RetryPolicy.builder("shared").build()));
+        assertThrows(NoSuchElementException.class, () -> registry.get("missing"));
+        assertThat(registry.replace(RetryPolicy.builder("shared").maxAttempts(1).build())).isSameAs(policy);
+        assertThat(registry.get("shared").maxAttempts()).isEqualTo(1L);
+    }
+
+    private static class ThrottledException extends Exception implements RetryAfter {
+        private final Duration retryAfter;
+
+        ThrottledException(Duration retryAfter) {
+            super("throttled");
+            this.retryAfter = retryAfter;
+        }
+
+        @Override
+        public Duration retryAfter() {
+            return retryAfter;
+        }
+    }
+}
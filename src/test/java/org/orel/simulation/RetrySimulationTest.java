@@ -0,0 +1,63 @@
+package org.orel.simulation;
+
+import org.junit.jupiter.api.Test;
+import org.orel.policy.Backoff;
+import org.orel.policy.RetryPolicy;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RetrySimulationTest {
+
+    private static final ServiceModel FLAKY = ServiceModel.failing(0.5, Duration.ofMillis(10));
+
+    @Test
+    void shouldBeDeterministicForASeed() {
+        // given
+        var policy = RetryPolicy.builder("test").maxAttempts(3).backoff(Backoff.fixed(100)).build();
+
+        // when
+        var first = RetrySimulation.builder(policy, FLAKY).calls(10_000).seed(7).build().run();
+        var second = RetrySimulation.builder(policy, FLAKY).calls(10_000).seed(7).build().run();
+
+        // then
+        assertThat(first).isEqualTo(second);
+    }
+
+    @Test
+    void shouldReportLoadAmplification() {
+        // given
+        var policy = RetryPolicy.builder("test").maxAttempts(3).backoff(Backoff.fixed(100)).build();
+
+        // when
+        var report = RetrySimulation.builder(policy, FLAKY).calls(100_000).arrivalRate(1_000).build().run();
+
+        // then
+        assertThat(report.calls()).isEqualTo(100_000L);
+        assertThat(report.unfinished()).isEqualTo(0L);
+        // 1 + 0.5 + 0.25 attempts and 1 - 0.125 successes per call
+        assertThat(report.loadAmplification()).isBetween(1.7, 1.8);
+        assertThat(report.successRate()).isBetween(0.86, 0.89);
+        assertThat(report.p999LatencyNanos()).isGreaterThan(Duration.ofMillis(200).toNanos());
+    }
+
+    @Test
+    void retriesShouldAmplifyAnOverload() {
+        // given
+        var model = ServiceModel.failing(0, Duration.ofMillis(50))
+                .withOutage(Duration.ofSeconds(5), Duration.ofSeconds(10))
+                .withCapacity(100);
+        var single = RetryPolicy.builder("single").maxAttempts(1).build();
+        var eager = RetryPolicy.builder("eager").maxAttempts(10).backoff(Backoff.fixed(1)).build();
+
+        // when
+        var withoutRetries = RetrySimulation.builder(single, model).calls(30_000).arrivalRate(1_000).build().run();
+        var withRetries = RetrySimulation.builder(eager, model).calls(30_000).arrivalRate(1_000).build().run();
+
+        // then
+        assertThat(withoutRetries.loadAmplification()).isEqualTo(1.0);
+        assertThat(withRetries.loadAmplification()).isGreaterThan(1.5);
+        assertThat(withRetries.failures()).isGreaterThan(0L);
+    }
+}